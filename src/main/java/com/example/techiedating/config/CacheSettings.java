@@ -0,0 +1,62 @@
+package com.example.techiedating.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-cache TTLs and local size limits, shared by the Redis and the in-process cache managers
+ * so both tiers expire entries on the same schedule.
+ */
+public final class CacheSettings {
+
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+    public static final long DEFAULT_MAX_SIZE = 10_000;
+
+    // Expiry times are spread by up to this fraction of the TTL so entries written together don't expire together
+    public static final double TTL_JITTER = 0.1;
+
+    private static final Map<String, Duration> TTLS = Map.of(
+            // User profiles cache (longer TTL as they don't change often)
+            "profiles", Duration.ofHours(24),
+            // Match results cache (shorter TTL as they might change more frequently)
+            "matches", Duration.ofMinutes(30),
+            // Search results cache (short TTL for fresh results)
+            "search", Duration.ofMinutes(15),
+            // Estimated search totals only need to be roughly current
+            "searchCount", Duration.ofMinutes(5),
+            // Namespace versions outlive the entries written under them, so a namespace isn't dropped early
+            "cacheVersions", Duration.ofHours(25)
+    );
+
+    private static final Map<String, Long> MAX_SIZES = Map.of(
+            "profiles", 50_000L,
+            "matchScore", 100_000L,
+            "matchRanking", 5_000L,
+            "conversation", 20_000L,
+            "searchCount", 20_000L,
+            "cacheVersions", 100_000L
+    );
+
+    // Caches used by the application, created up front so their statistics are registered at startup
+    public static final Set<String> CACHE_NAMES = Set.of(
+            "profiles", "matches", "matchScore", "matchRanking", "search", "searchCount",
+            "conversation", "userConversations",
+            "geocode", "reverseGeocode", "cacheVersions"
+    );
+
+    private CacheSettings() {
+    }
+
+    public static Duration ttl(String cacheName) {
+        return TTLS.getOrDefault(cacheName, DEFAULT_TTL);
+    }
+
+    public static Map<String, Duration> ttlOverrides() {
+        return TTLS;
+    }
+
+    public static long maxSize(String cacheName) {
+        return MAX_SIZES.getOrDefault(cacheName, DEFAULT_MAX_SIZE);
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.techiedating.config;
 
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
@@ -10,4 +14,36 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 )
 public class JpaConfig {
     // Configuration class to enable JPA repositories and specify the implementation postfix
+
+    @Value("${jpa.query-plan-cache.max-size:2048}")
+    private int queryPlanCacheMaxSize;
+
+    @Value("${jpa.jdbc.batch-size:50}")
+    private int jdbcBatchSize;
+
+    /**
+     * Keep translated query plans for every profile search shape, and pad IN lists
+     * (ranked text search IDs, skill filters) to powers of two so their SQL repeats
+     * and prepared statements can be reused
+     */
+    @Bean
+    public HibernatePropertiesCustomizer queryPlanCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, queryPlanCacheMaxSize);
+            properties.put(AvailableSettings.IN_CLAUSE_PARAMETER_PADDING, true);
+        };
+    }
+
+    /**
+     * Send inserts and updates of several entities as JDBC batches, grouped by table so
+     * bulk saves such as loading the skill catalog share one batch per statement
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, jdbcBatchSize);
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
 }
@@ -0,0 +1,83 @@
+package com.example.techiedating.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process Caffeine cache used when Redis is disabled, and as the fallback when Redis is unreachable.
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(
+    name = "spring.redis.enabled", 
+    havingValue = "false",
+    matchIfMissing = true // Use this config if property is not set
+)
+public class LocalCacheConfig {
+    
+    @Bean
+    @Primary
+    public CacheManager cacheManager() {
+        return createCacheManager(null);
+    }
+
+    /**
+     * Build a Caffeine cache manager with the per-cache size limits and TTLs from {@link CacheSettings}
+     * @param maxTtl Optional upper bound on every cache's TTL (used for the L1 tier in front of Redis)
+     */
+    public static CaffeineCacheManager createCacheManager(Duration maxTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(builder(CacheSettings.DEFAULT_TTL, CacheSettings.DEFAULT_MAX_SIZE, maxTtl));
+        for (String cacheName : CacheSettings.CACHE_NAMES) {
+            cacheManager.registerCustomCache(cacheName, builder(
+                    CacheSettings.ttl(cacheName), CacheSettings.maxSize(cacheName), maxTtl).build());
+        }
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> builder(Duration ttl, long maxSize, Duration maxTtl) {
+        Duration effectiveTtl = maxTtl != null && maxTtl.compareTo(ttl) < 0 ? maxTtl : ttl;
+        return Caffeine.newBuilder()
+                .expireAfter(new JitteredExpiry(effectiveTtl.toNanos()))
+                .maximumSize(maxSize)
+                .recordStats();
+    }
+
+    /**
+     * Expire-after-write with each entry's TTL spread by {@link CacheSettings#TTL_JITTER}
+     */
+    private static final class JitteredExpiry implements Expiry<Object, Object> {
+        private final long ttlNanos;
+
+        private JitteredExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            double jitter = ThreadLocalRandom.current().nextDouble(-CacheSettings.TTL_JITTER, CacheSettings.TTL_JITTER);
+            return (long) (ttlNanos * (1.0 + jitter));
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,26 +0,0 @@
-package com.example.techiedating.config;
-
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.support.NoOpCacheManager;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Primary;
-import org.springframework.context.annotation.Profile;
-
-@Configuration
-@EnableCaching
-@ConditionalOnProperty(
-    name = "spring.redis.enabled", 
-    havingValue = "false",
-    matchIfMissing = true // Use this config if property is not set
-)
-public class NoOpCacheConfig {
-    
-    @Bean
-    @Primary
-    public CacheManager cacheManager() {
-        return new NoOpCacheManager();
-    }
-}
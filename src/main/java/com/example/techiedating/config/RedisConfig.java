@@ -2,13 +2,14 @@ package com.example.techiedating.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.example.techiedating.service.cache.TwoTierCacheManager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -24,7 +25,6 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.Callable;
 
 @Configuration
 @EnableCaching
@@ -40,6 +40,14 @@ public class RedisConfig extends CachingConfigurerSupport {
     @Value("${spring.redis.password:}")
     private String redisPassword;
 
+    // Keep a short-lived in-process L1 in front of Redis for hot keys
+    @Value("${spring.redis.local-tier.enabled:false}")
+    private boolean localTierEnabled;
+
+    // L1 entries aren't invalidated across nodes, so they live at most this long
+    @Value("${spring.redis.local-tier.ttl:PT1M}")
+    private Duration localTierTtl;
+
     private static final Logger logger = LoggerFactory.getLogger(RedisConfig.class);
 
     @Bean
@@ -54,51 +62,55 @@ public class RedisConfig extends CachingConfigurerSupport {
             factory.afterPropertiesSet(); // Test the connection
             return factory;
         } catch (Exception e) {
-            logger.warn("Failed to connect to Redis: {}. Falling back to NoOp cache manager.", e.getMessage());
-            return null; // Will trigger fallback to NoOpCacheManager
+            logger.warn("Failed to connect to Redis: {}. Falling back to local cache manager.", e.getMessage());
+            return null; // Will trigger fallback to the local cache manager
         }
     }
 
     @Bean
     @Primary
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                     CaffeineCacheManager localCacheManager) {
         if (redisConnectionFactory == null) {
-            logger.warn("Redis is not available. Using NoOpCacheManager as fallback.");
-            return new NoOpCacheManager();
+            logger.warn("Redis is not available. Using local cache manager as fallback.");
+            return localCacheManager;
         }
 
         try {
             // Default cache configuration (1 hour TTL)
             RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
-                    .entryTtl(Duration.ofHours(1))
+                    .entryTtl(CacheSettings.DEFAULT_TTL)
                     .disableCachingNullValues()
                     .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                     .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
-            // Specific cache configurations
+            // Specific cache configurations, shared with the local cache
             Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-            
-            // User profiles cache (longer TTL as they don't change often)
-            cacheConfigurations.put("profiles", defaultCacheConfig.entryTtl(Duration.ofHours(24)));
-            
-            // Match results cache (shorter TTL as they might change more frequently)
-            cacheConfigurations.put("matches", defaultCacheConfig.entryTtl(Duration.ofMinutes(30)));
-            
-            // Search results cache (short TTL for fresh results)
-            cacheConfigurations.put("search", defaultCacheConfig.entryTtl(Duration.ofMinutes(15)));
+            CacheSettings.ttlOverrides().forEach((cacheName, ttl) ->
+                    cacheConfigurations.put(cacheName, defaultCacheConfig.entryTtl(ttl)));
 
-            return RedisCacheManager.builder(redisConnectionFactory)
+            RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
                     .cacheDefaults(defaultCacheConfig)
                     .withInitialCacheConfigurations(cacheConfigurations)
                     .build();
+            redisCacheManager.afterPropertiesSet();
+
+            if (localTierEnabled) {
+                logger.info("Using local L1 cache (TTL {}) in front of Redis", localTierTtl);
+                return new TwoTierCacheManager(localCacheManager, redisCacheManager);
+            }
+            return redisCacheManager;
         } catch (Exception e) {
-            logger.warn("Failed to initialize Redis cache manager: {}. Falling back to NoOp cache manager.", e.getMessage());
-            return new NoOpCacheManager();
+            logger.warn("Failed to initialize Redis cache manager: {}. Falling back to local cache manager.", e.getMessage());
+            return localCacheManager;
         }
     }
     
+    /**
+     * Local cache used as the L1 tier, or on its own when Redis can't be reached
+     */
     @Bean
-    public CacheManager noOpCacheManager() {
-        return new NoOpCacheManager();
+    public CaffeineCacheManager localCacheManager() {
+        return LocalCacheConfig.createCacheManager(localTierEnabled ? localTierTtl : null);
     }
 }
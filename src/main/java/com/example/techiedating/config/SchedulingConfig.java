@@ -0,0 +1,10 @@
+package com.example.techiedating.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Enables the @Scheduled recommendation jobs and the periodic search index rebuilds
+}
@@ -0,0 +1,45 @@
+package com.example.techiedating.config;
+
+import com.example.techiedating.service.chat.LocalUnreadCounterStore;
+import com.example.techiedating.service.chat.RedisUnreadCounterStore;
+import com.example.techiedating.service.chat.UnreadCounterStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class UnreadCounterConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCounterConfig.class);
+
+    @Value("${spring.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    // Counters are recounted from the database this long after they were loaded
+    @Value("${chat.unread.reconcile-interval:PT10M}")
+    private Duration reconcileInterval;
+
+    @Value("${chat.unread.local-max-users:100000}")
+    private long localMaxUsers;
+
+    /**
+     * Keep unread counters in Redis when it is enabled and connected, so every instance sees the same counts,
+     * and in process otherwise
+     */
+    @Bean
+    public UnreadCounterStore unreadCounterStore(ObjectProvider<RedisConnectionFactory> redisConnectionFactory) {
+        RedisConnectionFactory connectionFactory = redisEnabled ? redisConnectionFactory.getIfAvailable() : null;
+        if (connectionFactory == null) {
+            logger.info("Keeping unread message counters in process");
+            return new LocalUnreadCounterStore(reconcileInterval, localMaxUsers);
+        }
+        return new RedisUnreadCounterStore(new StringRedisTemplate(connectionFactory), reconcileInterval);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.techiedating.controller;
 
 import com.example.techiedating.dto.MatchRequestDTO;
 import com.example.techiedating.dto.MatchScoreDTO;
+import com.example.techiedating.dto.SearchResultDTO;
 import com.example.techiedating.service.MatchmakingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -43,6 +44,17 @@ public class MatchmakingController {
         return ResponseEntity.ok(matchPage);
     }
 
+    // Suggestions paged by continuation token; omit the cursor for the first page
+    @GetMapping("/suggestions/cursor")
+    public ResponseEntity<SearchResultDTO<MatchScoreDTO>> getMatchSuggestionsAfter(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        String currentUserId = userDetails.getUsername();
+        return ResponseEntity.ok(matchmakingService.findMatchSuggestions(currentUserId, cursor, size));
+    }
+
     @PostMapping("/search")
     public ResponseEntity<Page<MatchScoreDTO>> searchMatches(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -51,44 +63,6 @@ public class MatchmakingController {
             @RequestParam(defaultValue = "10") int size) {
         
         String currentUserId = userDetails.getUsername();
-        
-        // For now, we'll use the same method as suggestions
-        // In a real implementation, we would filter based on the request criteria
-        List<MatchScoreDTO> matches = matchmakingService.findPotentialMatches(currentUserId, page, size);
-        
-        // Apply filters from request
-        if (request.getMaxDistanceKm() != null) {
-            matches = matches.stream()
-                    .filter(m -> m.getDistanceKm() <= request.getMaxDistanceKm())
-                    .toList();
-        }
-        
-        if (request.getMinExperience() != null) {
-            matches = matches.stream()
-                    .filter(m -> m.getExperienceYrs() != null && m.getExperienceYrs() >= request.getMinExperience())
-                    .toList();
-        }
-        
-        if (request.getMaxExperience() != null) {
-            matches = matches.stream()
-                    .filter(m -> m.getExperienceYrs() != null && m.getExperienceYrs() <= request.getMaxExperience())
-                    .toList();
-        }
-        
-        if (request.getGender() != null && !request.getGender().isEmpty()) {
-            matches = matches.stream()
-                    .filter(m -> request.getGender().equalsIgnoreCase(m.getGender()))
-                    .toList();
-        }
-        
-        // Convert to Page for better pagination support
-        Pageable pageable = PageRequest.of(page, size);
-        Page<MatchScoreDTO> matchPage = new PageImpl<>(
-                matches,
-                pageable,
-                matches.size()
-        );
-        
-        return ResponseEntity.ok(matchPage);
+        return ResponseEntity.ok(matchmakingService.searchMatches(currentUserId, request, page, size));
     }
 }
@@ -7,8 +7,13 @@ import com.example.techiedating.model.User;
 import com.example.techiedating.model.UserProfile;
 import com.example.techiedating.repository.UserProfileRepository;
 import com.example.techiedating.repository.UserRepository;
+import com.example.techiedating.service.index.GeoGridIndex;
+import com.example.techiedating.service.index.ProfileAttributeIndex;
+import com.example.techiedating.service.index.ProfileTextSearch;
+import com.example.techiedating.service.ranking.MatchRecommendationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -27,6 +32,10 @@ public class ProfileController {
 
     private final UserProfileRepository userProfileRepository;
     private final UserRepository userRepository;
+    private final GeoGridIndex geoGridIndex;
+    private final ObjectProvider<ProfileTextSearch> profileTextSearch;
+    private final ProfileAttributeIndex profileAttributeIndex;
+    private final MatchRecommendationService matchRecommendationService;
 
     @GetMapping("/me")
     public ResponseEntity<ProfileResponse> getMyProfile(
@@ -79,6 +88,10 @@ public class ProfileController {
         }
         
         UserProfile savedProfile = userProfileRepository.save(profile);
+        geoGridIndex.update(savedProfile.getId(), savedProfile.getLatitude(), savedProfile.getLongitude());
+        profileTextSearch.ifAvailable(textSearch -> textSearch.update(savedProfile));
+        profileAttributeIndex.update(savedProfile);
+        matchRecommendationService.markStale(savedProfile.getId());
         return ResponseEntity.ok(convertToProfileResponse(savedProfile));
     }
     
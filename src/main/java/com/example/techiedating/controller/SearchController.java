@@ -1,5 +1,6 @@
 package com.example.techiedating.controller;
 
+import com.example.techiedating.dto.CountStrategy;
 import com.example.techiedating.dto.MatchScoreDTO;
 import com.example.techiedating.dto.SearchRequestDTO;
 import com.example.techiedating.dto.SearchResultDTO;
@@ -34,6 +35,7 @@ public class SearchController {
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestParam(required = false) String query,
             @RequestParam(required = false) List<Long> skillIds,
+            @RequestParam(required = false) List<String> interests,
             @RequestParam(required = false) Integer minExperience,
             @RequestParam(required = false) Integer maxExperience,
             @RequestParam(required = false) String gender,
@@ -42,12 +44,16 @@ public class SearchController {
             @RequestParam(required = false) Double longitude,
             @RequestParam(required = false) List<String> sortBy,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) CountStrategy countStrategy,
+            @RequestParam(required = false) Boolean includeFacets) {
         
         // Build search request from query parameters
         SearchRequestDTO request = SearchRequestDTO.builder()
                 .query(query)
                 .skillIds(skillIds)
+                .interests(interests)
                 .minExperience(minExperience)
                 .maxExperience(maxExperience)
                 .gender(gender)
@@ -57,6 +63,9 @@ public class SearchController {
                 .sortBy(sortBy)
                 .page(page)
                 .size(size)
+                .cursor(cursor)
+                .countStrategy(countStrategy)
+                .includeFacets(includeFacets)
                 .build();
         
         String currentUserId = userDetails.getUsername();
@@ -2,6 +2,7 @@ package com.example.techiedating.controller;
 
 import com.example.techiedating.model.ChatMessage;
 import com.example.techiedating.service.ChatService;
+import com.example.techiedating.service.chat.ChatIngestionPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.Header;
@@ -16,21 +17,28 @@ import org.springframework.web.util.HtmlUtils;
 
 import java.security.Principal;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 public class WebSocketController {
 
     private final SimpMessagingTemplate messagingTemplate;
     private final ChatService chatService;
+    private final ChatIngestionPipeline chatIngestionPipeline;
 
     @Autowired
-    public WebSocketController(SimpMessagingTemplate messagingTemplate, ChatService chatService) {
+    public WebSocketController(SimpMessagingTemplate messagingTemplate, ChatService chatService,
+                               ChatIngestionPipeline chatIngestionPipeline) {
         this.messagingTemplate = messagingTemplate;
         this.chatService = chatService;
+        this.chatIngestionPipeline = chatIngestionPipeline;
     }
 
     /**
-     * Handle private messages between users
+     * Handle private messages between users.
+     * The message is delivered as soon as it has its server-side ID and is saved in the background;
+     * the sender's confirmation follows the configured ingestion durability.
+     * Messages rejected because ingestion is backed up aren't delivered, and the sender is told to retry.
      */
     @MessageMapping("/chat/private/{recipientId}")
     public void sendPrivateMessage(
@@ -43,23 +51,32 @@ public class WebSocketController {
         message.setSenderId(senderId);
         message.setRecipientId(recipientId);
         
-        // Save the message to the database
-        ChatMessage savedMessage = chatService.saveMessage(message);
+        // Queue the message for saving; this assigns its ID and timestamp
+        CompletableFuture<ChatMessage> acknowledged = chatIngestionPipeline.submit(message);
+        if (acknowledged.isCompletedExceptionally()) {
+            messagingTemplate.convertAndSendToUser(senderId, "/queue/errors",
+                    "Message could not be sent, please retry: " + message.getId());
+            return;
+        }
         
         // Send to the recipient
         messagingTemplate.convertAndSendToUser(
                 recipientId,
                 "/queue/private",
-                savedMessage);
-        
-        // Also send to the sender (for confirmation)
-        messagingTemplate.convertAndSendToUser(
-                senderId,
-                "/queue/private",
-                savedMessage);
+                message);
         
         // Notify users about new message
         notifyNewMessage(recipientId, senderId);
+        
+        // Also send to the sender (for confirmation), or report that the message was lost
+        acknowledged.whenComplete((savedMessage, failure) -> {
+            if (failure == null) {
+                messagingTemplate.convertAndSendToUser(senderId, "/queue/private", savedMessage);
+            } else {
+                messagingTemplate.convertAndSendToUser(senderId, "/queue/errors",
+                        "Message could not be saved: " + message.getId());
+            }
+        });
     }
     
     /**
@@ -74,13 +91,14 @@ public class WebSocketController {
     }
     
     /**
-     * Handle message read receipts
+     * Handle message read receipts; receipts for messages still waiting to be saved are applied once they are
      */
     @MessageMapping("/chat/read/{messageId}")
     public void handleMessageRead(
             @DestinationVariable String messageId,
             Principal principal) {
-        chatService.markMessageAsRead(messageId, principal.getName());
+        String userId = principal.getName();
+        chatIngestionPipeline.whenSaved(messageId, () -> chatService.markMessageAsRead(messageId, userId));
     }
     
     /**
@@ -0,0 +1,13 @@
+package com.example.techiedating.dto;
+
+/**
+ * How a paged search determines its total number of results
+ */
+public enum CountStrategy {
+    // Run a count query with the same filters
+    EXACT,
+    // Reuse a recently counted total for the same filters, counting only on a miss
+    ESTIMATED,
+    // Don't count; whether another page follows is still reported
+    NONE
+}
@@ -0,0 +1,53 @@
+package com.example.techiedating.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort key of a result list
+ * and the sort value and ID of the last row a client has seen
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = "\u001f";
+
+    private final String sortKey;
+    private final boolean descending;
+    private final String lastValue;
+    private final String lastId;
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortKey, descending ? "d" : "a", lastValue, lastId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token wasn't produced by {@link #encode()}
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 4 || parts[3].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PageCursor(parts[0], "d".equals(parts[1]), parts[2], parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor belongs to a result list with a different order
+     */
+    public void requireSortKey(String expectedSortKey, boolean expectedDescending) {
+        if (!sortKey.equals(expectedSortKey) || descending != expectedDescending) {
+            throw new IllegalArgumentException("Cursor doesn't match the requested sort order");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.techiedating.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFacetsDTO {
+    private Map<String, Long> genders; // Matching profiles per gender
+    private Map<String, Long> experience; // Matching profiles per experience bucket (e.g. "2-4", "10+", "unknown")
+    private Map<String, Long> skillCategories; // Matching profiles sharing a skill with the searcher, per skill category
+}
@@ -14,13 +14,17 @@ import java.util.List;
 public class SearchRequestDTO {
     private String query; // General search query (name, bio, etc.)
     private List<Long> skillIds; // Filter by skills
+    private List<String> interests; // Filter by interests (any of them)
     private Integer minExperience; // Minimum years of experience
     private Integer maxExperience; // Maximum years of experience
     private String gender; // Filter by gender
     private Double maxDistanceKm; // Maximum distance in kilometers
     private Double latitude; // Current user's latitude for distance calculation
     private Double longitude; // Current user's longitude for distance calculation
-    private List<String> sortBy; // Fields to sort by (e.g., ["experienceYrs,desc", "displayName,asc"])
+    private List<String> sortBy; // Sort mode and optional direction (e.g., ["experience,desc"]); see SearchSortMode
     private Integer page; // Page number (0-based)
     private Integer size; // Page size
+    private String cursor; // Continuation token from a previous result; replaces the page number
+    private Boolean includeFacets; // Also count all matches per gender, experience bucket and skill category
+    private CountStrategy countStrategy; // How to count all matches; EXACT by default, NONE when paging by cursor
 }
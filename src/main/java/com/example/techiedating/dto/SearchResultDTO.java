@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -16,9 +17,12 @@ public class SearchResultDTO<T> {
     private List<T> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements; // null when not counted
+    private CountStrategy countStrategy; // How totalElements was determined
+    private Integer totalPages;
     private boolean last;
+    private String nextCursor; // Token for the following page, null on the last page
+    private SearchFacetsDTO facets; // Counts over all matches, only when requested
 
     public static <T> SearchResultDTO<T> fromPage(Page<T> page) {
         return SearchResultDTO.<T>builder()
@@ -28,6 +32,26 @@ public class SearchResultDTO<T> {
                 .totalElements(page.getTotalElements())
                 .totalPages(page.getTotalPages())
                 .last(page.isLast())
+                .countStrategy(CountStrategy.EXACT)
+                .build();
+    }
+
+    /**
+     * Result of a query that fetched one page without counting; the total, if any, comes from the count strategy
+     */
+    public static <T> SearchResultDTO<T> fromSlice(Slice<T> slice, String nextCursor,
+                                                   Long totalElements, CountStrategy countStrategy) {
+        return SearchResultDTO.<T>builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .totalElements(totalElements)
+                .totalPages(totalElements != null
+                        ? (int) Math.ceil((double) totalElements / Math.max(1, slice.getSize()))
+                        : null)
+                .last(!slice.hasNext())
+                .nextCursor(nextCursor)
+                .countStrategy(countStrategy)
                 .build();
     }
 }
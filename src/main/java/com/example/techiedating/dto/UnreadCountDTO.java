@@ -0,0 +1,15 @@
+package com.example.techiedating.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pushed to a user whenever their number of unread messages changes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountDTO {
+    private long unreadCount;
+}
@@ -15,11 +15,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "chat_messages")
+// Serves unread counts per recipient and bulk read receipts per conversation
+@Table(name = "chat_messages",
+        indexes = @Index(name = "idx_chat_messages_unread", columnList = "recipient_id, is_read, conversation_id"))
 public class ChatMessage {
     
+    // Time-ordered, so inserts append to the primary key index
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
     
     @Column(name = "conversation_id", nullable = false)
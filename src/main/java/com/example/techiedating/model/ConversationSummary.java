@@ -0,0 +1,62 @@
+package com.example.techiedating.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One participant's view of a conversation: its last message and how many messages they haven't read.
+ * Maintained as messages are saved and read, so a user's inbox is a range scan of their own rows.
+ */
+@Entity
+@Table(name = "conversation_summaries",
+        indexes = @Index(name = "idx_conversation_summary_inbox", columnList = "user_id, last_message_at DESC"))
+@IdClass(ConversationSummary.Key.class)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ConversationSummary {
+
+    @Id
+    @Column(name = "conversation_id")
+    private String conversationId;
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "other_user_id", nullable = false)
+    private String otherUserId;
+
+    @Column(name = "last_message_id")
+    private String lastMessageId;
+
+    @Column(name = "last_sender_id")
+    private String lastSenderId;
+
+    @Column(name = "last_message_content", columnDefinition = "TEXT")
+    private String lastMessageContent;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_message_type")
+    private ChatMessage.MessageType lastMessageType;
+
+    // Null until the conversation's first message is recorded
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    // Read watermark: every message this participant received up to this time has been read
+    @Column(name = "last_read_at")
+    private LocalDateTime lastReadAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String conversationId;
+        private String userId;
+    }
+}
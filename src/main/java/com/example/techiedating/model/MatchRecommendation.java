@@ -0,0 +1,49 @@
+package com.example.techiedating.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed top-N match candidates for a user.
+ * The ranking is stored one row per candidate in ranking order, indexed by candidate,
+ * so the rankings a user appears in can be found when their profile or skills change.
+ */
+@Entity
+@Table(name = "match_recommendations")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class MatchRecommendation {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @ElementCollection
+    @CollectionTable(name = "match_recommendation_candidates",
+            joinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_match_recommendation_candidate", columnList = "candidate_id"))
+    @OrderColumn(name = "position")
+    @Builder.Default
+    private List<Candidate> candidates = new ArrayList<>();
+
+    @Column(name = "ranking_limit", nullable = false)
+    private int rankingLimit;
+
+    @Column(name = "computed_at", nullable = false)
+    private Instant computedAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Candidate {
+        @Column(name = "candidate_id", nullable = false)
+        private String candidateId;
+
+        @Column(nullable = false)
+        private double score;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.techiedating.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generates UUIDv7 identifiers: a millisecond timestamp followed by a counter and random bits.
+ * IDs from one instance strictly increase, so new rows are appended to the end of the primary key index
+ * instead of being scattered across it like random UUIDs. Applied to entity IDs with {@link TimeOrderedId}.
+ */
+public class TimeOrderedIdGenerator implements IdentifierGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int COUNTER_BITS = 12;
+    private static final long MAX_COUNTER = (1L << COUNTER_BITS) - 1;
+
+    private static long lastMillis;
+    private static long counter;
+
+    // Called by Hibernate for IDs annotated with @TimeOrderedId
+    public TimeOrderedIdGenerator(TimeOrderedId config, Member member, CustomIdGeneratorCreationContext context) {
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return nextId();
+    }
+
+    /**
+     * @return A new UUIDv7 in its canonical string form
+     */
+    public static String nextId() {
+        long millis;
+        long sequence;
+        synchronized (TimeOrderedIdGenerator.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                // Start each millisecond low in the counter range, leaving room to count up
+                counter = RANDOM.nextInt(1 << (COUNTER_BITS - 2));
+            } else if (++counter > MAX_COUNTER) {
+                // Counter exhausted, or the clock went back: borrow the next millisecond to stay monotonic
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            sequence = counter;
+        }
+
+        long mostSignificant = (millis << 16) | (0x7L << COUNTER_BITS) | sequence;
+        long leastSignificant = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant).toString();
+    }
+}
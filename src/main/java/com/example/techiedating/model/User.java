@@ -15,7 +15,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "app_user")
+// Recency sorts walk this index in (created_at, id) order
+@Table(name = "app_user", indexes = @Index(name = "idx_app_user_created_at_id", columnList = "created_at, id"))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class User implements UserDetails {
 
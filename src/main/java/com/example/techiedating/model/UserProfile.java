@@ -9,7 +9,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "profile")
+// Experience sorts walk this index in (experience, id) order
+@Table(name = "profile", indexes = @Index(name = "idx_profile_experience_id", columnList = "experience_yrs, id"))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class UserProfile {
 
@@ -30,6 +31,7 @@ public class UserProfile {
 
     private Double latitude;
     private Double longitude;
+    @Column(name = "experience_yrs")
     private Integer experienceYrs;
 
     @ElementCollection
@@ -0,0 +1,74 @@
+package com.example.techiedating.repository;
+
+import com.example.techiedating.model.ChatMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inserts chat messages with multi-row JDBC statements, bypassing the persistence context.
+ * Messages must already carry their ID, conversation and timestamps.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO chat_messages " +
+            "(id, conversation_id, sender_id, recipient_id, content, message_type, is_read, created_at, updated_at) " +
+            "VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 9;
+    private static final String MARK_READ_SQL = "UPDATE chat_messages SET is_read = TRUE WHERE id IN (";
+
+    // Keeps each statement well below the drivers' bind parameter limits
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert all messages in one transaction, with one statement per chunk of rows
+     */
+    @Transactional
+    public void insertAll(List<ChatMessage> messages) {
+        for (int from = 0; from < messages.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<ChatMessage> chunk = messages.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, messages.size()));
+            String sql = INSERT_SQL + String.join(", ", Collections.nCopies(chunk.size(), ROW));
+            jdbcTemplate.update(sql, statement -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    bind(statement, i * COLUMNS, chunk.get(i));
+                }
+            });
+        }
+    }
+
+    /**
+     * Flag messages as read; for messages the recipient's read watermark passed before they were saved
+     */
+    @Transactional
+    public void markRead(List<String> ids) {
+        for (int from = 0; from < ids.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, ids.size()));
+            jdbcTemplate.update(MARK_READ_SQL + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                    chunk.toArray());
+        }
+    }
+
+    private static void bind(PreparedStatement statement, int offset, ChatMessage message) throws SQLException {
+        statement.setString(offset + 1, message.getId());
+        statement.setString(offset + 2, message.getConversationId());
+        statement.setString(offset + 3, message.getSenderId());
+        statement.setString(offset + 4, message.getRecipientId());
+        statement.setString(offset + 5, message.getContent());
+        statement.setString(offset + 6, message.getMessageType().name());
+        statement.setBoolean(offset + 7, message.isRead());
+        statement.setTimestamp(offset + 8, Timestamp.valueOf(message.getCreatedAt()));
+        statement.setTimestamp(offset + 9, Timestamp.valueOf(message.getUpdatedAt()));
+    }
+}
@@ -4,10 +4,12 @@ import com.example.techiedating.model.ChatMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -19,20 +21,16 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, String
     Page<ChatMessage> findByConversationId(String conversationId, Pageable pageable);
     
     /**
-     * Find recent conversations for a user (one message per conversation)
+     * Mark every message a user received in a conversation up to the given time as read, in one statement
+     * @return The number of messages that were unread
      */
-    @Query("SELECT m FROM ChatMessage m " +
-           "WHERE m.id IN (SELECT MAX(m2.id) FROM ChatMessage m2 " +
-           "WHERE m2.senderId = :userId OR m2.recipientId = :userId " +
-           "GROUP BY m2.conversationId) " +
-           "ORDER BY m.updatedAt DESC")
-    List<ChatMessage> findRecentConversations(@Param("userId") String userId);
-    
-    /**
-     * Find unread messages in a conversation for a specific user
-     */
-    List<ChatMessage> findByConversationIdAndRecipientIdAndIsReadFalse(
-            String conversationId, String recipientId);
+    @Modifying
+    @Query("UPDATE ChatMessage m SET m.isRead = true, m.updatedAt = :readAt " +
+           "WHERE m.conversationId = :conversationId AND m.recipientId = :recipientId " +
+           "AND m.isRead = false AND m.createdAt <= :readAt")
+    int markReadUpTo(@Param("conversationId") String conversationId,
+                     @Param("recipientId") String recipientId,
+                     @Param("readAt") LocalDateTime readAt);
     
     /**
      * Count unread messages for a user
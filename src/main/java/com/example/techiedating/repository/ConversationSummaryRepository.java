@@ -0,0 +1,63 @@
+package com.example.techiedating.repository;
+
+import com.example.techiedating.model.ChatMessage;
+import com.example.techiedating.model.ConversationSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, ConversationSummary.Key> {
+
+    // A user's conversations, most recent first, read from the (user_id, last_message_at) index
+    @Query("SELECT s FROM ConversationSummary s WHERE s.userId = :userId AND s.lastMessageAt IS NOT NULL " +
+           "ORDER BY s.lastMessageAt DESC")
+    List<ConversationSummary> findInbox(@Param("userId") String userId, Pageable pageable);
+
+    // Create an empty summary; a row created concurrently is kept, without failing the transaction
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summaries (conversation_id, user_id, other_user_id, unread_count) " +
+           "VALUES (:conversationId, :userId, :otherUserId, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("conversationId") String conversationId, @Param("userId") String userId,
+                       @Param("otherUserId") String otherUserId);
+
+    // Replace the last message unless a later one was already recorded; message IDs break timestamp ties
+    @Modifying
+    @Query("UPDATE ConversationSummary s SET s.lastMessageId = :messageId, s.lastSenderId = :senderId, " +
+           "s.lastMessageContent = :content, s.lastMessageType = :messageType, s.lastMessageAt = :sentAt " +
+           "WHERE s.conversationId = :conversationId AND s.userId = :userId " +
+           "AND (s.lastMessageAt IS NULL OR s.lastMessageAt < :sentAt " +
+           "OR (s.lastMessageAt = :sentAt AND s.lastMessageId < :messageId))")
+    int updateLastMessage(@Param("conversationId") String conversationId,
+                          @Param("userId") String userId,
+                          @Param("messageId") String messageId,
+                          @Param("senderId") String senderId,
+                          @Param("content") String content,
+                          @Param("messageType") ChatMessage.MessageType messageType,
+                          @Param("sentAt") LocalDateTime sentAt);
+
+    // Count messages sent at or after sentAt as unread, unless the read watermark already covers sentAt
+    @Modifying
+    @Query("UPDATE ConversationSummary s SET s.unreadCount = s.unreadCount + :count " +
+           "WHERE s.conversationId = :conversationId AND s.userId = :userId " +
+           "AND (s.lastReadAt IS NULL OR s.lastReadAt < :sentAt)")
+    int addUnread(@Param("conversationId") String conversationId, @Param("userId") String userId,
+                  @Param("count") long count, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary s SET s.unreadCount = s.unreadCount - 1 " +
+           "WHERE s.conversationId = :conversationId AND s.userId = :userId AND s.unreadCount > 0")
+    int decrementUnread(@Param("conversationId") String conversationId, @Param("userId") String userId);
+
+    // Move the read watermark forward and clear the unread count; older receipts change nothing
+    @Modifying
+    @Query("UPDATE ConversationSummary s SET s.unreadCount = 0, s.lastReadAt = :readAt " +
+           "WHERE s.conversationId = :conversationId AND s.userId = :userId " +
+           "AND (s.lastReadAt IS NULL OR s.lastReadAt < :readAt)")
+    int markRead(@Param("conversationId") String conversationId, @Param("userId") String userId,
+                 @Param("readAt") LocalDateTime readAt);
+}
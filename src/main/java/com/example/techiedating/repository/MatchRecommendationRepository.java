@@ -0,0 +1,20 @@
+package com.example.techiedating.repository;
+
+import com.example.techiedating.model.MatchRecommendation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface MatchRecommendationRepository extends JpaRepository<MatchRecommendation, String> {
+
+    // A user's recommendation with its ranked candidates loaded
+    @Query("SELECT r FROM MatchRecommendation r LEFT JOIN FETCH r.candidates WHERE r.userId = :userId")
+    Optional<MatchRecommendation> findWithCandidates(@Param("userId") String userId);
+
+    // Users whose stored ranking includes the given candidate
+    @Query("SELECT DISTINCT r.userId FROM MatchRecommendation r JOIN r.candidates c WHERE c.candidateId = :candidateId")
+    List<String> findUserIdsRanking(@Param("candidateId") String candidateId);
+}
@@ -0,0 +1,25 @@
+package com.example.techiedating.repository;
+
+import com.example.techiedating.model.Gender;
+import com.example.techiedating.model.SkillCategory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Number of profiles matching a search per attribute value
+ */
+@Getter
+@AllArgsConstructor
+public class ProfileFacets {
+
+    // Profiles per gender; every gender is present, profiles without one are left out
+    private final Map<Gender, Long> genders;
+
+    // Profiles per experience bucket label ("0-1", "2-4", ...) in ascending order, then "unknown"
+    private final Map<String, Long> experience;
+
+    // Profiles having at least one of the facet skills in each category; categories without any are left out
+    private final Map<SkillCategory, Long> skillCategories;
+}
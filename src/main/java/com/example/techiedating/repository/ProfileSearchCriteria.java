@@ -0,0 +1,109 @@
+package com.example.techiedating.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Filters for a profile search. Every filter is optional except the searching user's ID.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class ProfileSearchCriteria {
+    private final String currentUserId;
+    private final String query;
+    private final String gender;
+    private final Integer minExperience;
+    private final Integer maxExperience;
+
+    // Profiles must have at least one of these skills
+    private final Collection<Integer> skillIds;
+
+    // Profiles must have at least one of these interests, case-insensitive
+    private final Collection<String> interests;
+
+    // Restrict to these profiles (pre-selected by an index); the other filters still apply
+    private final Collection<String> candidateIds;
+
+    // Restrict to these profiles and keep this relevance order (from a text search); replaces the query filter
+    private final List<String> rankedIds;
+
+    // Radius filter around a reference point; without a reference point nobody is within the radius
+    private final Double latitude;
+    private final Double longitude;
+    private final Double maxDistanceKm;
+
+    // Result order; always followed by the profile ID. Ignored for ranked searches, which keep relevance order.
+    @Builder.Default
+    private final ProfileSortKey sortKey = ProfileSortKey.ID;
+    private final boolean descending;
+
+    // Keyset position: only return profiles ordered after this sort value and profile ID
+    private final String afterValue;
+    private final String afterId;
+
+    public boolean hasSkillFilter() {
+        return skillIds != null && !skillIds.isEmpty();
+    }
+
+    public boolean hasInterestFilter() {
+        return interests != null && !interests.isEmpty();
+    }
+
+    public boolean hasCandidates() {
+        return candidateIds != null;
+    }
+
+    public boolean isRanked() {
+        return rankedIds != null;
+    }
+
+    public boolean hasKeyset() {
+        return afterId != null;
+    }
+
+    /**
+     * @return true if no profile can match: an empty text search result or candidate set,
+     *         or a radius without a reference point
+     */
+    public boolean selectsNothing() {
+        return (isRanked() && rankedIds.isEmpty())
+                || (hasCandidates() && candidateIds.isEmpty())
+                || (hasDistanceFilter() && !hasReferencePoint());
+    }
+
+    public boolean hasDistanceFilter() {
+        return maxDistanceKm != null;
+    }
+
+    public boolean hasReferencePoint() {
+        return latitude != null && longitude != null;
+    }
+
+    /**
+     * Identifies the set of profiles the filters select, ignoring order, keyset position and who is searching
+     * (which shifts a count by at most one), so estimated counts can be shared between searches.
+     * ID lists are digested in full; ranked IDs keep their order, since search keys build on this too.
+     */
+    public String filterFingerprint() {
+        return String.join("|",
+                String.valueOf(query),
+                rankedIds != null ? digest(rankedIds) : "",
+                candidateIds != null ? digest(new TreeSet<>(candidateIds)) : "",
+                String.valueOf(gender),
+                String.valueOf(minExperience),
+                String.valueOf(maxExperience),
+                hasSkillFilter() ? new TreeSet<>(skillIds).toString() : "",
+                hasInterestFilter() ? new TreeSet<>(interests).toString() : "",
+                hasDistanceFilter() ? maxDistanceKm + "@" + latitude + "," + longitude : "");
+    }
+
+    private static String digest(Collection<String> ids) {
+        return ids.size() + "#" + DigestUtils.md5DigestAsHex(String.join(",", ids).getBytes(StandardCharsets.UTF_8));
+    }
+}
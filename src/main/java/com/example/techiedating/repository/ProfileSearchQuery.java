@@ -0,0 +1,307 @@
+package com.example.techiedating.repository;
+
+import com.example.techiedating.model.Gender;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A profile search as JPQL. The statement depends only on which filters are present, never on their values,
+ * which are always bound as parameters. Each shape is built once and its text reused, so Hibernate's query plan
+ * cache skips re-translating it and the driver can reuse the prepared statement.
+ */
+final class ProfileSearchQuery {
+
+    enum Projection {
+        PROFILE, ID, COUNT,
+        // IDs in result order, like PROFILE
+        ORDERED_ID,
+        // Counts per gender and experience bucket
+        GENDER_EXPERIENCE_FACETS,
+        // Profiles per category of the facet skills they have
+        SKILL_CATEGORY_FACETS
+    }
+
+    // Upper bounds (exclusive) of the experience buckets; the last bucket is open-ended
+    static final int[] EXPERIENCE_BUCKET_BOUNDS = {2, 5, 10};
+
+    private enum LongitudeRange {
+        NONE, BETWEEN, WRAPPED
+    }
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+    private static final double HALF_RADIANS_PER_DEGREE = Math.PI / 360.0;
+
+    // JPQL per shape key; the number of shapes is bounded by the combinations of filters
+    private static final Map<String, String> STATEMENTS = new ConcurrentHashMap<>();
+
+    private final ProfileSearchCriteria criteria;
+    private final Projection projection;
+    private final Collection<Integer> facetSkillIds;
+
+    private final boolean text;
+    private final boolean gender;
+    private final boolean radius;
+    private final boolean haversine;
+    private LongitudeRange longitudeRange = LongitudeRange.NONE;
+
+    // Radius bounds, derived from the reference point and distance
+    private double minLatitude;
+    private double maxLatitude;
+    private double minLongitude;
+    private double maxLongitude;
+    private double threshold;
+
+    ProfileSearchQuery(ProfileSearchCriteria criteria, Projection projection) {
+        this(criteria, projection, null);
+    }
+
+    /**
+     * @param facetSkillIds The skills counted by {@link Projection#SKILL_CATEGORY_FACETS}
+     */
+    ProfileSearchQuery(ProfileSearchCriteria criteria, Projection projection, Collection<Integer> facetSkillIds) {
+        this.criteria = criteria;
+        this.projection = projection;
+        this.facetSkillIds = facetSkillIds;
+        this.text = !criteria.isRanked() && criteria.getQuery() != null && !criteria.getQuery().isEmpty();
+        this.gender = criteria.getGender() != null && !criteria.getGender().isEmpty();
+        this.radius = criteria.hasDistanceFilter() && criteria.hasReferencePoint();
+        this.haversine = radius && computeRadiusBounds();
+    }
+
+    /**
+     * Create the query with every parameter of its shape bound
+     */
+    <T> TypedQuery<T> create(EntityManager entityManager, Class<T> resultType) {
+        String statement = STATEMENTS.computeIfAbsent(shapeKey(), key -> buildStatement());
+        TypedQuery<T> query = entityManager.createQuery(statement, resultType);
+        bind(query);
+        return query;
+    }
+
+    /**
+     * Restrict to a radius: a lat/lon bounding box the database can use an index for,
+     * then the exact great-circle check on the rows inside the box
+     * @return true if the great-circle check is needed, false if the radius covers the whole globe
+     */
+    private boolean computeRadiusBounds() {
+        double lat0 = criteria.getLatitude();
+        double lon0 = criteria.getLongitude();
+        double radiusKm = criteria.getMaxDistanceKm();
+        
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        minLatitude = lat0 - latDelta;
+        maxLatitude = lat0 + latDelta;
+        
+        // Longitude degrees shrink towards the poles; near a pole every longitude can be in range
+        double maxAbsLat = Math.abs(lat0) + latDelta;
+        if (maxAbsLat < 90.0) {
+            double lonDelta = latDelta / Math.cos(Math.toRadians(maxAbsLat));
+            if (lonDelta < 180.0) {
+                minLongitude = lon0 - lonDelta;
+                maxLongitude = lon0 + lonDelta;
+                longitudeRange = LongitudeRange.BETWEEN;
+                if (minLongitude < -180.0) {
+                    minLongitude += 360.0;
+                    longitudeRange = LongitudeRange.WRAPPED;
+                } else if (maxLongitude > 180.0) {
+                    maxLongitude -= 360.0;
+                    longitudeRange = LongitudeRange.WRAPPED;
+                }
+            }
+        }
+        
+        // Haversine: distance <= radius  <=>  a <= sin^2(radius / 2R)
+        double halfAngle = radiusKm / (2 * EARTH_RADIUS_KM);
+        if (halfAngle >= Math.PI / 2) {
+            return false;
+        }
+        threshold = Math.sin(halfAngle) * Math.sin(halfAngle);
+        return true;
+    }
+
+    private String shapeKey() {
+        StringBuilder key = new StringBuilder(projection.name()).append(':');
+        key.append(criteria.isRanked() ? 'R' : '-')
+                .append(text ? 'T' : '-')
+                .append(gender ? 'G' : '-')
+                .append(criteria.getMinExperience() != null ? 'N' : '-')
+                .append(criteria.getMaxExperience() != null ? 'X' : '-')
+                .append(criteria.hasSkillFilter() ? 'S' : '-')
+                .append(criteria.hasInterestFilter() ? 'I' : '-')
+                .append(criteria.hasCandidates() ? 'C' : '-')
+                .append(radius ? 'D' : '-')
+                .append(longitudeRange.ordinal())
+                .append(haversine ? 'H' : '-');
+        if (isOrdered()) {
+            key.append(':').append(criteria.getSortKey().name())
+                    .append(criteria.isDescending() ? 'D' : 'A')
+                    .append(criteria.hasKeyset() ? 'K' : '-');
+        }
+        return key.toString();
+    }
+
+    private String buildStatement() {
+        StringBuilder jpql = new StringBuilder(switch (projection) {
+            case PROFILE -> "SELECT p FROM UserProfile p";
+            case ID, ORDERED_ID -> "SELECT p.id FROM UserProfile p";
+            case COUNT -> "SELECT count(p) FROM UserProfile p";
+            case GENDER_EXPERIENCE_FACETS -> "SELECT p.gender, " + experienceBucket() + ", count(p) FROM UserProfile p";
+            case SKILL_CATEGORY_FACETS -> "SELECT fs.category, count(DISTINCT p.id) FROM UserProfile p"
+                    + " JOIN UserSkill fus ON fus.user.id = p.id JOIN fus.skill fs";
+        });
+        
+        // Exclude current user
+        jpql.append(" WHERE p.id <> :currentUserId");
+        
+        // Restrict to the text search matches, or search displayName and bio with LIKE
+        if (criteria.isRanked()) {
+            jpql.append(" AND p.id IN :rankedIds");
+        } else if (text) {
+            jpql.append(" AND (lower(p.displayName) LIKE :pattern OR lower(p.bio) LIKE :pattern)");
+        }
+        
+        if (criteria.hasCandidates()) {
+            jpql.append(" AND p.id IN :candidateIds");
+        }
+        if (gender) {
+            jpql.append(" AND p.gender = :gender");
+        }
+        if (criteria.getMinExperience() != null) {
+            jpql.append(" AND p.experienceYrs >= :minExperience");
+        }
+        if (criteria.getMaxExperience() != null) {
+            jpql.append(" AND p.experienceYrs <= :maxExperience");
+        }
+        
+        // An EXISTS subquery on user_skills, so no join duplicates rows
+        if (criteria.hasSkillFilter()) {
+            jpql.append(" AND EXISTS (SELECT 1 FROM UserSkill us WHERE us.user.id = p.id AND us.skill.id IN :skillIds)");
+        }
+        if (criteria.hasInterestFilter()) {
+            jpql.append(" AND EXISTS (SELECT 1 FROM UserProfile ip JOIN ip.interests i WHERE ip.id = p.id AND lower(i) IN :interests)");
+        }
+        
+        if (radius) {
+            jpql.append(" AND p.latitude BETWEEN :minLatitude AND :maxLatitude");
+            if (longitudeRange == LongitudeRange.BETWEEN) {
+                jpql.append(" AND p.longitude BETWEEN :minLongitude AND :maxLongitude");
+            } else if (longitudeRange == LongitudeRange.WRAPPED) {
+                jpql.append(" AND (p.longitude >= :minLongitude OR p.longitude <= :maxLongitude)");
+            }
+            if (haversine) {
+                String sinHalfDLat = "sin((p.latitude - :latitude) * " + HALF_RADIANS_PER_DEGREE + ")";
+                String sinHalfDLon = "sin((p.longitude - :longitude) * " + HALF_RADIANS_PER_DEGREE + ")";
+                jpql.append(" AND ").append(sinHalfDLat).append(" * ").append(sinHalfDLat)
+                        .append(" + cos(p.latitude * ").append(2 * HALF_RADIANS_PER_DEGREE).append(") * :cosLatitude * ")
+                        .append(sinHalfDLon).append(" * ").append(sinHalfDLon)
+                        .append(" <= :threshold");
+            }
+        }
+        
+        switch (projection) {
+            case PROFILE, ORDERED_ID -> appendKeysetAndOrder(jpql);
+            case GENDER_EXPERIENCE_FACETS -> jpql.append(" GROUP BY p.gender, ").append(experienceBucket());
+            case SKILL_CATEGORY_FACETS -> jpql.append(" AND fs.id IN :facetSkillIds GROUP BY fs.category");
+            default -> {
+            }
+        }
+        return jpql.toString();
+    }
+
+    private boolean isOrdered() {
+        return projection == Projection.PROFILE || projection == Projection.ORDERED_ID;
+    }
+
+    /**
+     * The index of a profile's experience bucket, or -1 if its experience is unknown
+     */
+    private static String experienceBucket() {
+        StringBuilder bucket = new StringBuilder("CASE WHEN p.experienceYrs IS NULL THEN -1");
+        for (int i = 0; i < EXPERIENCE_BUCKET_BOUNDS.length; i++) {
+            bucket.append(" WHEN p.experienceYrs < ").append(EXPERIENCE_BUCKET_BOUNDS[i]).append(" THEN ").append(i);
+        }
+        return bucket.append(" ELSE ").append(EXPERIENCE_BUCKET_BOUNDS.length).append(" END").toString();
+    }
+
+    /**
+     * Seek past the keyset position with (sortKey, id) > (:afterValue, :afterId), and order the same way.
+     * The ID follows the direction of the sort key, so descending pages walk the same index backwards.
+     */
+    private void appendKeysetAndOrder(StringBuilder jpql) {
+        ProfileSortKey sortKey = criteria.getSortKey();
+        String direction = criteria.isDescending() ? "DESC" : "ASC";
+        String beyond = criteria.isDescending() ? " < " : " > ";
+        if (sortKey == ProfileSortKey.ID) {
+            if (criteria.hasKeyset()) {
+                jpql.append(" AND p.id").append(beyond).append(":afterId");
+            }
+            jpql.append(" ORDER BY p.id ").append(direction);
+            return;
+        }
+        
+        String expression = sortKey.expression();
+        if (criteria.hasKeyset()) {
+            jpql.append(" AND (").append(expression).append(beyond).append(":afterValue OR (")
+                    .append(expression).append(" = :afterValue AND p.id").append(beyond).append(":afterId))");
+        }
+        jpql.append(" ORDER BY ").append(expression).append(' ').append(direction).append(", p.id ").append(direction);
+    }
+
+    private void bind(TypedQuery<?> query) {
+        query.setParameter("currentUserId", criteria.getCurrentUserId());
+        if (criteria.isRanked()) {
+            query.setParameter("rankedIds", criteria.getRankedIds());
+        } else if (text) {
+            query.setParameter("pattern", "%" + criteria.getQuery().toLowerCase() + "%");
+        }
+        if (criteria.hasCandidates()) {
+            query.setParameter("candidateIds", criteria.getCandidateIds());
+        }
+        if (gender) {
+            query.setParameter("gender", Gender.valueOf(criteria.getGender().toUpperCase()));
+        }
+        if (criteria.getMinExperience() != null) {
+            query.setParameter("minExperience", criteria.getMinExperience());
+        }
+        if (criteria.getMaxExperience() != null) {
+            query.setParameter("maxExperience", criteria.getMaxExperience());
+        }
+        if (criteria.hasSkillFilter()) {
+            query.setParameter("skillIds", criteria.getSkillIds());
+        }
+        if (criteria.hasInterestFilter()) {
+            query.setParameter("interests", criteria.getInterests().stream()
+                    .map(interest -> interest.trim().toLowerCase(Locale.ROOT))
+                    .toList());
+        }
+        if (radius) {
+            query.setParameter("minLatitude", minLatitude);
+            query.setParameter("maxLatitude", maxLatitude);
+            if (longitudeRange != LongitudeRange.NONE) {
+                query.setParameter("minLongitude", minLongitude);
+                query.setParameter("maxLongitude", maxLongitude);
+            }
+            if (haversine) {
+                query.setParameter("latitude", criteria.getLatitude());
+                query.setParameter("longitude", criteria.getLongitude());
+                query.setParameter("cosLatitude", Math.cos(Math.toRadians(criteria.getLatitude())));
+                query.setParameter("threshold", threshold);
+            }
+        }
+        if (projection == Projection.SKILL_CATEGORY_FACETS) {
+            query.setParameter("facetSkillIds", facetSkillIds);
+        }
+        if (isOrdered() && criteria.hasKeyset()) {
+            query.setParameter("afterId", criteria.getAfterId());
+            if (criteria.getSortKey() != ProfileSortKey.ID) {
+                query.setParameter("afterValue", criteria.getSortKey().parse(criteria.getAfterValue()));
+            }
+        }
+    }
+}
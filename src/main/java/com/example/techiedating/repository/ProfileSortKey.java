@@ -0,0 +1,68 @@
+package com.example.techiedating.repository;
+
+import com.example.techiedating.model.UserProfile;
+
+import java.time.Instant;
+
+/**
+ * Columns a profile search can be ordered by. Every order ends with the profile ID as tie-breaker,
+ * so it is total and can be resumed from a keyset cursor. Each column is non-null within the search
+ * and indexed together with the ID, so ordered pages are read from the index instead of sorted.
+ */
+public enum ProfileSortKey {
+    ID("id", "p.id") {
+        @Override
+        Object parse(String value) {
+            return value;
+        }
+    },
+    // Only used when the search excludes profiles without experience
+    EXPERIENCE("experience", "p.experienceYrs") {
+        @Override
+        Object parse(String value) {
+            return Integer.valueOf(value);
+        }
+    },
+    // Account creation time; profiles share their user's ID
+    RECENCY("recency", "p.user.createdAt") {
+        @Override
+        Object parse(String value) {
+            return Instant.parse(value);
+        }
+    };
+
+    private final String property;
+    private final String expression;
+
+    ProfileSortKey(String property, String expression) {
+        this.property = property;
+        this.expression = expression;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * The JPQL expression to order and seek by, on a profile aliased as p
+     */
+    String expression() {
+        return expression;
+    }
+
+    /**
+     * Parse a cursor value back into the type of {@link #expression()}
+     */
+    abstract Object parse(String value);
+
+    /**
+     * The cursor value of a profile, matching {@link #expression()}
+     */
+    public String cursorValue(UserProfile profile) {
+        return switch (this) {
+            case ID -> profile.getId();
+            case EXPERIENCE -> String.valueOf(profile.getExperienceYrs());
+            case RECENCY -> profile.getUser().getCreatedAt().toString();
+        };
+    }
+}
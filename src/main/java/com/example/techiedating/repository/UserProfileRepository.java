@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserProfileRepository extends JpaRepository<UserProfile, String>, UserProfileRepositoryCustom {
@@ -17,6 +19,55 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, String
     @Query("SELECT up FROM UserProfile up WHERE up.user.id != :userId")
     Page<UserProfile> findByUserIdNot(@Param("userId") String userId, Pageable pageable);
     
+    // Coordinates of every located profile, used to warm the geospatial index
+    @Query("SELECT up.id, up.latitude, up.longitude FROM UserProfile up " +
+           "WHERE up.latitude IS NOT NULL AND up.longitude IS NOT NULL")
+    List<Object[]> findAllLocations();
+    
+    // Attributes needed to score candidates, without loading full entities
+    @Query("SELECT up.id, up.latitude, up.longitude, up.experienceYrs FROM UserProfile up " +
+           "WHERE up.id IN :ids")
+    List<Object[]> findScoringAttributesByIds(@Param("ids") Collection<String> ids);
+    
+    // Next chunk of scoring attributes after the given profile ID, in ID order
+    @Query("SELECT up.id, up.latitude, up.longitude, up.experienceYrs FROM UserProfile up " +
+           "WHERE up.id <> :userId AND up.id > :afterId ORDER BY up.id")
+    List<Object[]> findScoringAttributesAfter(@Param("userId") String userId,
+                                              @Param("afterId") String afterId,
+                                              Pageable pageable);
+    
+    // Next chunk of scoring attributes of profiles without coordinates, which the geospatial index doesn't hold
+    @Query("SELECT up.id, up.latitude, up.longitude, up.experienceYrs FROM UserProfile up " +
+           "WHERE up.id <> :userId AND up.id > :afterId AND (up.latitude IS NULL OR up.longitude IS NULL) " +
+           "ORDER BY up.id")
+    List<Object[]> findUnlocatedScoringAttributesAfter(@Param("userId") String userId,
+                                                       @Param("afterId") String afterId,
+                                                       Pageable pageable);
+    
+    // Next chunk of profile IDs belonging to active users, in ID order
+    @Query("SELECT up.id FROM UserProfile up WHERE up.user.active = true AND up.id > :afterId ORDER BY up.id")
+    List<String> findActiveProfileIdsAfter(@Param("afterId") String afterId, Pageable pageable);
+    
+    // Searchable text of every profile, for the in-process text index
+    @Query("SELECT up.id, up.displayName, up.bio FROM UserProfile up")
+    List<Object[]> findAllSearchText();
+    
+    @Query("SELECT up.id, i FROM UserProfile up JOIN up.interests i")
+    List<Object[]> findAllInterests();
+    
+    // Filterable attributes of every profile, for the in-process attribute index
+    @Query("SELECT up.id, up.gender, up.experienceYrs FROM UserProfile up")
+    List<Object[]> findAllFilterAttributes();
+    
+    // Full-text match on PostgreSQL, most relevant first; the expression matches the GIN index
+    @Query(value = "SELECT p.id FROM profile p " +
+           "WHERE to_tsvector('simple', coalesce(p.display_name, '') || ' ' || coalesce(p.bio, '')) " +
+           "@@ plainto_tsquery('simple', :query) " +
+           "ORDER BY ts_rank(to_tsvector('simple', coalesce(p.display_name, '') || ' ' || coalesce(p.bio, '')), " +
+           "plainto_tsquery('simple', :query)) DESC, p.id " +
+           "LIMIT :limit", nativeQuery = true)
+    List<String> searchTextRanked(@Param("query") String query, @Param("limit") int limit);
+    
     @Query("SELECT up FROM UserProfile up WHERE up.user.email = :email")
     Optional<UserProfile> findByUserEmail(@Param("email") String email);
 }
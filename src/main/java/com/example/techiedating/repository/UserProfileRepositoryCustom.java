@@ -1,16 +1,24 @@
 package com.example.techiedating.repository;
 
 import com.example.techiedating.model.UserProfile;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface UserProfileRepositoryCustom {
-    Page<UserProfile> searchProfiles(
-            String currentUserId,
-            String query,
-            String gender,
-            Integer minExperience,
-            Integer maxExperience,
-            Pageable pageable
-    );
+    // Page of matching profiles, after the criteria's keyset position if it has one; never counts
+    Slice<UserProfile> searchProfiles(ProfileSearchCriteria criteria, Pageable pageable);
+
+    long countProfiles(ProfileSearchCriteria criteria);
+
+    // IDs of the first matching profiles in result order, after the keyset position if the criteria have one
+    List<String> searchProfileIds(ProfileSearchCriteria criteria, int limit);
+
+    // Profiles with the given IDs in the same order; missing ones are skipped
+    List<UserProfile> findProfilesInOrder(List<String> ids);
+
+    // Facet counts over every profile matching the criteria; skill categories only count the given skills
+    ProfileFacets countFacets(ProfileSearchCriteria criteria, Collection<Integer> facetSkillIds);
 }
@@ -1,133 +1,196 @@
 package com.example.techiedating.repository;
 
+import com.example.techiedating.model.Gender;
+import com.example.techiedating.model.SkillCategory;
 import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.ProfileSearchQuery.Projection;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.criteria.*;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Repository;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
-public class UserProfileRepositoryCustomImpl extends SimpleJpaRepository<UserProfile, String> 
-        implements UserProfileRepositoryCustom {
+public class UserProfileRepositoryCustomImpl implements UserProfileRepositoryCustom {
 
-    private final EntityManager entityManager;
+    private static final String PROFILES_BY_IDS = "SELECT p FROM UserProfile p WHERE p.id IN :ids";
 
-    public UserProfileRepositoryCustomImpl(EntityManager entityManager) {
-        super(UserProfile.class, entityManager);
-        this.entityManager = entityManager;
-    }
+    @PersistenceContext
+    private EntityManager entityManager;
 
+    /**
+     * Get a page of matching profiles after the criteria's keyset position, if any, without a count query.
+     * One extra row is fetched to tell whether another page follows.
+     */
     @Override
-    public Page<UserProfile> searchProfiles(
-            String currentUserId,
-            String query,
-            String gender,
-            Integer minExperience,
-            Integer maxExperience,
-            Pageable pageable) {
-        
-        var cb = entityManager.getCriteriaBuilder();
-        var cq = cb.createQuery(UserProfile.class);
-        var profile = cq.from(UserProfile.class);
-        
-        // Select distinct profiles
-        cq.select(profile).distinct(true);
-        
-        // List to hold predicates
-        List<Predicate> predicates = new ArrayList<>();
-        
-        // Exclude current user
-        predicates.add(cb.notEqual(profile.get("id"), currentUserId));
-        
-        // Add search query predicate (search in displayName and bio)
-        if (query != null && !query.isEmpty()) {
-            String searchPattern = "%" + query.toLowerCase() + "%";
-            predicates.add(
-                cb.or(
-                    cb.like(cb.lower(profile.get("displayName")), searchPattern),
-                    cb.like(cb.lower(profile.get("bio")), searchPattern)
-                )
-            );
+    public Slice<UserProfile> searchProfiles(ProfileSearchCriteria criteria, Pageable pageable) {
+        if (criteria.selectsNothing()) {
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
         }
         
-        // Add gender filter
-        if (gender != null && !gender.isEmpty()) {
-            predicates.add(cb.equal(profile.get("gender"), gender));
+        int size = pageable.getPageSize();
+        if (criteria.isRanked()) {
+            List<String> orderedIds = rankedQualifyingIds(criteria);
+            int from = (int) Math.min(rankedStart(orderedIds, criteria) + pageable.getOffset(), orderedIds.size());
+            int to = Math.min(from + size, orderedIds.size());
+            return new SliceImpl<>(loadInOrder(orderedIds.subList(from, to)), pageable, to < orderedIds.size());
         }
         
-        // Add experience range filter
-        if (minExperience != null) {
-            predicates.add(cb.greaterThanOrEqualTo(profile.get("experienceYrs"), minExperience));
+        List<UserProfile> resultList = new ProfileSearchQuery(criteria, Projection.PROFILE)
+                .create(entityManager, UserProfile.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = resultList.size() > size;
+        return new SliceImpl<>(hasNext ? resultList.subList(0, size) : resultList, pageable, hasNext);
+    }
+
+    /**
+     * Count every profile matching the criteria, ignoring any keyset position
+     */
+    @Override
+    public long countProfiles(ProfileSearchCriteria criteria) {
+        if (criteria.selectsNothing()) {
+            return 0;
         }
-        
-        if (maxExperience != null) {
-            predicates.add(cb.lessThanOrEqualTo(profile.get("experienceYrs"), maxExperience));
+        if (criteria.isRanked()) {
+            return rankedQualifyingIds(criteria).size();
         }
-        
-        // Apply all predicates
-        if (!predicates.isEmpty()) {
-            cq.where(predicates.toArray(new Predicate[0]));
+        return new ProfileSearchQuery(criteria, Projection.COUNT)
+                .create(entityManager, Long.class)
+                .getSingleResult();
+    }
+
+    @Override
+    public List<String> searchProfileIds(ProfileSearchCriteria criteria, int limit) {
+        if (criteria.selectsNothing()) {
+            return Collections.emptyList();
         }
-        
-        // Execute query with pagination
-        var typedQuery = entityManager.createQuery(cq);
-        typedQuery.setFirstResult((int) pageable.getOffset());
-        typedQuery.setMaxResults(pageable.getPageSize());
-        
-        // Get the result list
-        List<UserProfile> resultList = typedQuery.getResultList();
-        
-        // Create a separate count query with its own criteria builder and predicates
-        var countCb = entityManager.getCriteriaBuilder();
-        var countCq = countCb.createQuery(Long.class);
-        var countProfile = countCq.from(UserProfile.class);
-        countCq.select(countCb.count(countProfile));
-        
-        // Rebuild predicates for the count query to avoid path registration conflicts
-        List<Predicate> countPredicates = new ArrayList<>();
-        
-        // Exclude current user
-        countPredicates.add(countCb.notEqual(countProfile.get("id"), currentUserId));
-        
-        // Add search query predicate (search in displayName and bio)
-        if (query != null && !query.isEmpty()) {
-            String searchPattern = "%" + query.toLowerCase() + "%";
-            countPredicates.add(
-                countCb.or(
-                    countCb.like(countCb.lower(countProfile.get("displayName")), searchPattern),
-                    countCb.like(countCb.lower(countProfile.get("bio")), searchPattern)
-                )
-            );
+        if (criteria.isRanked()) {
+            List<String> orderedIds = rankedQualifyingIds(criteria);
+            int from = Math.min(rankedStart(orderedIds, criteria), orderedIds.size());
+            return orderedIds.subList(from, Math.min(from + limit, orderedIds.size()));
         }
-        
-        // Add gender filter
-        if (gender != null && !gender.isEmpty()) {
-            countPredicates.add(countCb.equal(countProfile.get("gender"), gender));
+        return new ProfileSearchQuery(criteria, Projection.ORDERED_ID)
+                .create(entityManager, String.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<UserProfile> findProfilesInOrder(List<String> ids) {
+        return loadInOrder(ids);
+    }
+
+    /**
+     * Count matching profiles per gender and experience bucket in one grouped query,
+     * and per category of the facet skills in a second one
+     */
+    @Override
+    public ProfileFacets countFacets(ProfileSearchCriteria criteria, Collection<Integer> facetSkillIds) {
+        Map<Gender, Long> genders = new EnumMap<>(Gender.class);
+        for (Gender gender : Gender.values()) {
+            genders.put(gender, 0L);
         }
-        
-        // Add experience range filter
-        if (minExperience != null) {
-            countPredicates.add(countCb.greaterThanOrEqualTo(countProfile.get("experienceYrs"), minExperience));
+        int[] bounds = ProfileSearchQuery.EXPERIENCE_BUCKET_BOUNDS;
+        long[] bucketCounts = new long[bounds.length + 2];
+        Map<SkillCategory, Long> skillCategories = new EnumMap<>(SkillCategory.class);
+        
+        if (!criteria.selectsNothing()) {
+            List<Object[]> rows = new ProfileSearchQuery(criteria, Projection.GENDER_EXPERIENCE_FACETS)
+                    .create(entityManager, Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                long count = ((Number) row[2]).longValue();
+                if (row[0] != null) {
+                    genders.merge((Gender) row[0], count, Long::sum);
+                }
+                // Unknown experience (-1) goes in the last slot
+                int bucket = ((Number) row[1]).intValue();
+                bucketCounts[bucket >= 0 ? bucket : bucketCounts.length - 1] += count;
+            }
+            
+            if (facetSkillIds != null && !facetSkillIds.isEmpty()) {
+                new ProfileSearchQuery(criteria, Projection.SKILL_CATEGORY_FACETS, facetSkillIds)
+                        .create(entityManager, Object[].class)
+                        .getResultList()
+                        .forEach(row -> skillCategories.put((SkillCategory) row[0], ((Number) row[1]).longValue()));
+            }
         }
         
-        if (maxExperience != null) {
-            countPredicates.add(countCb.lessThanOrEqualTo(countProfile.get("experienceYrs"), maxExperience));
+        Map<String, Long> experience = new LinkedHashMap<>();
+        int lower = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            experience.put(lower + "-" + (bounds[i] - 1), bucketCounts[i]);
+            lower = bounds[i];
+        }
+        experience.put(lower + "+", bucketCounts[bounds.length]);
+        experience.put("unknown", bucketCounts[bounds.length + 1]);
+        return new ProfileFacets(genders, experience, skillCategories);
+    }
+
+    /**
+     * The ranked IDs that pass the other filters, in relevance order.
+     * The text search bounds how many there are, so they are selected in one ID-only query.
+     */
+    private List<String> rankedQualifyingIds(ProfileSearchCriteria criteria) {
+        Set<String> qualifying = new HashSet<>(new ProfileSearchQuery(criteria, Projection.ID)
+                .create(entityManager, String.class)
+                .getResultList());
+        return criteria.getRankedIds().stream()
+                .filter(qualifying::contains)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resume after the last seen profile. If it no longer matches, resume after every qualifying profile
+     * the text search ranked at or above its recorded rank.
+     */
+    private static int rankedStart(List<String> orderedIds, ProfileSearchCriteria criteria) {
+        if (!criteria.hasKeyset()) {
+            return 0;
+        }
+        int index = orderedIds.indexOf(criteria.getAfterId());
+        if (index >= 0) {
+            return index + 1;
         }
         
-        // Apply all predicates to count query
-        if (!countPredicates.isEmpty()) {
-            countCq.where(countPredicates.toArray(new Predicate[0]));
+        int afterRank = Integer.parseInt(criteria.getAfterValue());
+        Set<String> seen = new HashSet<>(criteria.getRankedIds().subList(0,
+                Math.max(0, Math.min(afterRank + 1, criteria.getRankedIds().size()))));
+        int start = 0;
+        while (start < orderedIds.size() && seen.contains(orderedIds.get(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private List<UserProfile> loadInOrder(List<String> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
         }
         
-        // Get the total count
-        Long total = entityManager.createQuery(countCq).getSingleResult();
+        Map<String, UserProfile> profilesById = entityManager.createQuery(PROFILES_BY_IDS, UserProfile.class)
+                .setParameter("ids", ids)
+                .getResultList().stream()
+                .collect(Collectors.toMap(UserProfile::getId, Function.identity()));
         
-        return new PageImpl<>(resultList, pageable, total);
+        return ids.stream()
+                .map(profilesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 }
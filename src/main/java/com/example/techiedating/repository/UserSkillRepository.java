@@ -53,6 +53,12 @@ public interface UserSkillRepository extends JpaRepository<UserSkill, Long> {
     @Query("SELECT us.user.id, us.skill.id, us.level FROM UserSkill us WHERE us.user.id IN :userIds")
     List<Object[]> findSkillLevelsByUserIds(@Param("userIds") List<String> userIds);
     
+    /**
+     * Get skill levels for every user, used to warm the in-memory skill index
+     */
+    @Query("SELECT us.user.id, us.skill.id, us.level FROM UserSkill us")
+    List<Object[]> findAllSkillLevels();
+    
     /**
      * Find users with specific skills at a minimum level
      */
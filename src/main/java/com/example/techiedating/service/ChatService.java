@@ -1,15 +1,19 @@
 package com.example.techiedating.service;
 
 import com.example.techiedating.model.ChatMessage;
+import com.example.techiedating.model.ConversationSummary;
 import com.example.techiedating.repository.ChatMessageRepository;
+import com.example.techiedating.service.cache.ChatCacheService;
+import com.example.techiedating.service.chat.ConversationSummaryService;
+import com.example.techiedating.service.chat.UnreadCounterService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,6 +25,9 @@ import java.util.Optional;
 public class ChatService {
 
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatCacheService chatCacheService;
+    private final ConversationSummaryService conversationSummaryService;
+    private final UnreadCounterService unreadCounterService;
     
     /**
      * Save a new chat message
@@ -43,62 +50,95 @@ public class ChatService {
         }
         message.setUpdatedAt(now);
         
-        return chatMessageRepository.save(message);
+        ChatMessage savedMessage = chatMessageRepository.save(message);
+        List<ChatMessage> unread = conversationSummaryService.recordMessages(List.of(savedMessage));
+        // A message sent before the recipient's read watermark is already read
+        if (unread.isEmpty()) {
+            savedMessage.setRead(true);
+        }
+        afterCommit(() -> unreadCounterService.messagesReceived(unread));
+        chatCacheService.evictConversation(
+                savedMessage.getConversationId(), savedMessage.getSenderId(), savedMessage.getRecipientId());
+        return savedMessage;
     }
     
     /**
      * Get conversation between two users
      */
-    @Cacheable(value = "conversation", key = "#userId1 + '_' + #userId2 + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
     public Page<ChatMessage> getConversation(String userId1, String userId2, Pageable pageable) {
         String conversationId = ChatMessage.generateConversationId(userId1, userId2);
-        return chatMessageRepository.findByConversationId(conversationId, pageable);
+        return chatCacheService.getConversation(conversationId, pageable.getPageNumber(), pageable.getPageSize(),
+                () -> chatMessageRepository.findByConversationId(conversationId, pageable));
     }
     
     /**
-     * Get all conversations for a user
+     * Get a user's conversations with their last message and unread count, most recent first
      */
-    @Cacheable(value = "userConversations", key = "#userId")
-    public List<ChatMessage> getUserConversations(String userId) {
-        return chatMessageRepository.findRecentConversations(userId);
+    public List<ConversationSummary> getUserConversations(String userId) {
+        return chatCacheService.getUserConversations(userId,
+                () -> conversationSummaryService.getInbox(userId));
     }
     
     /**
      * Mark a message as read
      */
     @Transactional
-    @CacheEvict(value = {"conversation", "userConversations"}, allEntries = true)
     public void markMessageAsRead(String messageId, String userId) {
         chatMessageRepository.findById(messageId).ifPresent(message -> {
             if (message.getRecipientId().equals(userId)) {
+                if (message.isRead()) {
+                    return;
+                }
                 message.setRead(true);
                 chatMessageRepository.save(message);
+                conversationSummaryService.markMessageRead(message.getConversationId(), userId);
+                afterCommit(() -> unreadCounterService.messagesRead(userId, 1));
+                chatCacheService.evictConversation(message.getConversationId(), message.getSenderId(), userId);
                 log.info("Marked message {} as read by user {}", messageId, userId);
             }
         });
     }
     
     /**
-     * Mark all messages in a conversation as read
+     * Mark all messages in a conversation as read.
+     * The user's read watermark moves to now, and their unread messages up to it are flagged
+     * with one bulk update instead of being loaded and saved one by one.
+     * Their caches are dropped even if no message was flagged, since the summary's watermark still moved.
      */
     @Transactional
-    @CacheEvict(value = {"conversation", "userConversations"}, allEntries = true)
     public void markConversationAsRead(String conversationId, String userId) {
-        List<ChatMessage> unreadMessages = chatMessageRepository
-                .findByConversationIdAndRecipientIdAndIsReadFalse(conversationId, userId);
-        
-        unreadMessages.forEach(message -> message.setRead(true));
-        chatMessageRepository.saveAll(unreadMessages);
-        
-        log.info("Marked {} messages as read in conversation {} for user {}", 
-                unreadMessages.size(), conversationId, userId);
+        LocalDateTime readAt = LocalDateTime.now();
+        conversationSummaryService.markConversationRead(conversationId, userId, readAt);
+        int marked = chatMessageRepository.markReadUpTo(conversationId, userId, readAt);
+        if (marked > 0) {
+            afterCommit(() -> unreadCounterService.messagesRead(userId, marked));
+            log.info("Marked {} messages as read in conversation {} for user {}",
+                    marked, conversationId, userId);
+        }
+        chatCacheService.evictConversationRead(conversationId, userId);
     }
     
     /**
      * Get unread message count for a user
      */
-    @Cacheable(value = "unreadCount", key = "#userId")
     public long getUnreadMessageCount(String userId) {
-        return chatMessageRepository.countByRecipientIdAndIsReadFalse(userId);
+        return unreadCounterService.getUnreadCount(userId);
+    }
+
+    /**
+     * Change unread counters only once the messages have committed, so a rollback can't leave them
+     * counted, or pushed to the user, wrongly
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
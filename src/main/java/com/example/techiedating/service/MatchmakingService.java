@@ -1,22 +1,34 @@
 package com.example.techiedating.service;
 
+import com.example.techiedating.dto.CountStrategy;
+import com.example.techiedating.dto.MatchRequestDTO;
 import com.example.techiedating.dto.MatchScoreDTO;
+import com.example.techiedating.dto.PageCursor;
+import com.example.techiedating.dto.SearchResultDTO;
 import com.example.techiedating.exception.ProfileNotFoundException;
+import com.example.techiedating.model.Skill;
 import com.example.techiedating.model.User;
 import com.example.techiedating.model.UserProfile;
-import com.example.techiedating.model.UserSkill;
+import com.example.techiedating.repository.ProfileSearchCriteria;
+import com.example.techiedating.repository.SkillRepository;
 import com.example.techiedating.repository.UserProfileRepository;
 import com.example.techiedating.repository.UserRepository;
-import com.example.techiedating.repository.UserSkillRepository;
 import com.example.techiedating.service.cache.MatchmakingCacheService;
 import com.example.techiedating.service.distance.DistanceCalculationService;
+import com.example.techiedating.service.index.GeoCandidate;
+import com.example.techiedating.service.index.GeoGridIndex;
+import com.example.techiedating.service.index.ProfileAttributeIndex;
+import com.example.techiedating.service.index.ProfileSelection;
+import com.example.techiedating.service.index.SkillVector;
+import com.example.techiedating.service.index.SkillVectorIndex;
+import com.example.techiedating.service.ranking.MatchRanking;
+import com.example.techiedating.service.ranking.MatchRankingEngine;
+import com.example.techiedating.service.ranking.MatchRecommendationService;
+import com.example.techiedating.service.ranking.RankedMatch;
 import com.example.techiedating.service.scoring.MatchScoringService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.*;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,12 +44,27 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MatchmakingService {
 
+    // Cursor sort key of suggestions, which are ordered by descending score, then user ID
+    private static final String SCORE_SORT = "score";
+
+    // Largest page a caller can request
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final Comparator<RankedMatch> BEST_FIRST = Comparator
+            .comparingDouble(RankedMatch::getScore).reversed()
+            .thenComparing(RankedMatch::getUserId);
+
     private final UserProfileRepository userProfileRepository;
-    private final UserSkillRepository userSkillRepository;
     private final UserRepository userRepository;
+    private final SkillRepository skillRepository;
     private final MatchScoringService matchScoringService;
     private final MatchmakingCacheService cacheService;
     private final DistanceCalculationService distanceCalculationService;
+    private final SkillVectorIndex skillVectorIndex;
+    private final MatchRankingEngine matchRankingEngine;
+    private final MatchRecommendationService matchRecommendationService;
+    private final ProfileAttributeIndex profileAttributeIndex;
+    private final GeoGridIndex geoGridIndex;
 
     /**
      * Find potential matches for a user
@@ -53,29 +80,180 @@ public class MatchmakingService {
         // Validate pagination parameters
         validatePagination(page, size);
 
-        // Check cache first
-        List<MatchScoreDTO> cachedResult = cacheService.getCachedMatches(username, page, size);
-        if (cachedResult != null) {
-            log.debug("Cache hit for matches: user={}, page={}, size={}", username, page, size);
-            return cachedResult;
+        // Serve repeat requests for the same page from the cache
+        User user = getUserByUsername(username);
+        return cacheService.getMatches(user.getId(), page, size, () -> computeMatchPage(user, page, size));
+    }
+
+    /**
+     * Get match suggestions for a user after a cursor from a previous result
+     * @param cursor Continuation token, or null for the first page
+     * @return Suggestions with the cursor of the following page
+     */
+    @Transactional(readOnly = true)
+    public SearchResultDTO<MatchScoreDTO> findMatchSuggestions(String username, String cursor, int size) {
+        if (cursor == null) {
+            List<MatchScoreDTO> matches = findPotentialMatches(username, 0, size);
+            boolean hasNext = matches.size() == size;
+            String nextCursor = hasNext
+                    ? scoreCursor(matches.get(matches.size() - 1).getScore(), matches.get(matches.size() - 1).getUserId())
+                    : null;
+            return SearchResultDTO.fromSlice(new SliceImpl<>(matches, PageRequest.of(0, size), hasNext), nextCursor,
+                    null, CountStrategy.NONE);
         }
+        
+        PageCursor after = PageCursor.decode(cursor);
+        after.requireSortKey(SCORE_SORT, true);
+        validatePagination(0, size);
+        
+        User user = getUserByUsername(username);
+        UserProfile currentUserProfile = getUserProfile(user);
+        validateProfileCompleteness(currentUserProfile);
+        SkillVector currentUserSkills = skillVectorIndex.get(user.getId());
+        
+        // Seek into the ranking, deepening it only if the page runs past what it holds
+        MatchRanking ranking = getRanking(currentUserProfile, currentUserSkills, size + 1);
+        int start = rankingStart(ranking, after);
+        if (!ranking.covers(start + size + 1)) {
+            ranking = getRanking(currentUserProfile, currentUserSkills, start + size + 1);
+            start = rankingStart(ranking, after);
+        }
+        
+        List<RankedMatch> pageMatches = ranking.slice(start, size);
+        boolean hasNext = ranking.getMatches().size() > start + size;
+        List<MatchScoreDTO> content = pageMatches.isEmpty()
+                ? Collections.emptyList()
+                : buildMatchPage(currentUserProfile, pageMatches, currentUserSkills);
+        RankedMatch last = hasNext ? pageMatches.get(pageMatches.size() - 1) : null;
+        return SearchResultDTO.fromSlice(new SliceImpl<>(content, PageRequest.of(0, size), hasNext),
+                last != null ? scoreCursor(last.getScore(), last.getUserId()) : null, null, CountStrategy.NONE);
+    }
 
-        // Get current user and profile with validation
+    private static String scoreCursor(double score, String userId) {
+        return new PageCursor(SCORE_SORT, true, Double.toString(score), userId).encode();
+    }
+
+    /**
+     * Position in the ranking right after the cursor: after its user if still ranked,
+     * otherwise after where its (score, user ID) would be
+     */
+    private static int rankingStart(MatchRanking ranking, PageCursor after) {
+        List<RankedMatch> matches = ranking.getMatches();
+        for (int i = 0; i < matches.size(); i++) {
+            if (matches.get(i).getUserId().equals(after.getLastId())) {
+                return i + 1;
+            }
+        }
+        RankedMatch key = new RankedMatch(after.getLastId(), Double.parseDouble(after.getLastValue()));
+        int index = Collections.binarySearch(matches, key, BEST_FIRST);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    /**
+     * Find matches for a user restricted by attribute and distance filters.
+     * The filters are resolved to the qualifying candidates first, from the attribute and geospatial indexes,
+     * and only those are ranked, so every qualifying candidate can appear and the total counts them all.
+     * Without filters every candidate qualifies, and the search pages through the user's full ranking.
+     */
+    @Transactional(readOnly = true)
+    public Page<MatchScoreDTO> searchMatches(String username, MatchRequestDTO request, int page, int size) {
+        validatePagination(page, size);
         User user = getUserByUsername(username);
         UserProfile currentUserProfile = getUserProfile(user);
         validateProfileCompleteness(currentUserProfile);
+        SkillVector currentUserSkills = skillVectorIndex.get(user.getId());
+        
+        Collection<String> candidateIds = matchCandidateIds(currentUserProfile, request);
+        MatchRanking ranking = candidateIds != null
+                ? matchRankingEngine.rankCandidates(currentUserProfile, currentUserSkills, candidateIds)
+                : getRanking(currentUserProfile, currentUserSkills, Integer.MAX_VALUE);
+        
+        Pageable pageable = PageRequest.of(page, size);
+        List<RankedMatch> pageMatches = ranking.slice(page * size, size);
+        List<MatchScoreDTO> content = pageMatches.isEmpty()
+                ? Collections.emptyList()
+                : buildMatchPage(currentUserProfile, pageMatches, currentUserSkills);
+        return new PageImpl<>(content, pageable, ranking.getMatches().size());
+    }
 
-        // Get paginated potential matches
-        List<UserProfile> potentialMatches = getPaginatedPotentialMatches(user.getId(), page, size);
-        if (potentialMatches.isEmpty()) {
-            return Collections.emptyList();
+    /**
+     * IDs of a user's best matches, best first, from the same ranking as their suggestions
+     */
+    public List<String> findRankedMatchIds(UserProfile currentProfile, SkillVector currentUserSkills, int limit) {
+        return getRanking(currentProfile, currentUserSkills, limit).slice(0, limit).stream()
+                .map(RankedMatch::getUserId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolve a match search's filters to every qualifying candidate, from the attribute index
+     * (or the database while it is still loading) and the geospatial index
+     * @return The qualifying candidate IDs, or null if the request has no filters
+     */
+    private Collection<String> matchCandidateIds(UserProfile currentProfile, MatchRequestDTO request) {
+        List<Integer> skillIds = request.getSkillIds() != null
+                ? request.getSkillIds().stream().map(Long::intValue).collect(Collectors.toList())
+                : null;
+        Set<String> candidates = null;
+        
+        boolean hasAttributeFilter = (request.getGender() != null && !request.getGender().isEmpty())
+                || request.getMinExperience() != null || request.getMaxExperience() != null
+                || (skillIds != null && !skillIds.isEmpty());
+        if (hasAttributeFilter) {
+            ProfileSelection selection = profileAttributeIndex.select(request.getGender(),
+                    request.getMinExperience(), request.getMaxExperience(), skillIds, null);
+            candidates = new HashSet<>(selection != null
+                    ? selection.ids()
+                    : userProfileRepository.searchProfileIds(ProfileSearchCriteria.builder()
+                            .currentUserId(currentProfile.getId())
+                            .gender(request.getGender())
+                            .minExperience(request.getMinExperience())
+                            .maxExperience(request.getMaxExperience())
+                            .skillIds(skillIds)
+                            .build(), Integer.MAX_VALUE));
+        }
+        
+        if (request.getMaxDistanceKm() != null) {
+            if (currentProfile.getLatitude() == null || currentProfile.getLongitude() == null) {
+                // No location, so nobody can be within the radius
+                return Collections.emptySet();
+            }
+            Set<String> nearby = geoGridIndex.findNearest(currentProfile.getLatitude(), currentProfile.getLongitude(),
+                            request.getMaxDistanceKm(), Integer.MAX_VALUE, currentProfile.getId()).stream()
+                    .map(GeoCandidate::getUserId)
+                    .collect(Collectors.toSet());
+            if (candidates == null) {
+                candidates = nearby;
+            } else {
+                candidates.retainAll(nearby);
+            }
         }
+        
+        if (candidates != null) {
+            candidates.remove(currentProfile.getId());
+        }
+        return candidates;
+    }
+
+    /**
+     * Compute a page of matches for a user
+     */
+    private List<MatchScoreDTO> computeMatchPage(User user, int page, int size) {
+        // Get current user's profile with validation
+        UserProfile currentUserProfile = getUserProfile(user);
+        validateProfileCompleteness(currentUserProfile);
 
         // Get current user's skills for comparison
-        Map<Integer, Integer> currentUserSkills = getUserSkills(user.getId());
+        SkillVector currentUserSkills = skillVectorIndex.get(user.getId());
+
+        // Serve the page as a slice of the user's top-K ranking
+        MatchRanking ranking = getRanking(currentUserProfile, currentUserSkills, (page + 1) * size);
+        List<RankedMatch> pageMatches = ranking.slice(page * size, size);
+        if (pageMatches.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        // Calculate and return match scores
-        return calculateMatchScores(currentUserProfile, potentialMatches, currentUserSkills);
+        return buildMatchPage(currentUserProfile, pageMatches, currentUserSkills);
     }
 
     /**
@@ -94,49 +272,21 @@ public class MatchmakingService {
             throw new IllegalArgumentException("Both user profiles must be provided");
         }
 
-        // Check cache first
-        MatchScoreDTO cachedScore = cacheService.getCachedMatchScore(currentUser, otherUser);
-        if (cachedScore != null) {
-            return cachedScore;
-        }
-
-        // Get other user's skills
-        List<UserSkill> otherUserSkills = userSkillRepository.findByUserId(otherUser.getUser().getId());
-
-        // Delegate score calculation to MatchScoringService
-        double totalScore = matchScoringService.calculateMatchScore(
-                currentUser, 
-                otherUser, 
-                new LinkedHashMap<>(currentUserSkills), 
-                otherUserSkills
-        );
-
-        // Get common skills with names
-        List<String> commonSkills = getCommonSkills(
-                currentUserSkills, 
-                otherUserSkills,
-                skillNameCache != null ? skillNameCache : new HashMap<>()
-        );
-
-        // Calculate distance
-        double distance = distanceCalculationService.calculateDistance(
-                currentUser.getLatitude(), 
-                currentUser.getLongitude(),
-                otherUser.getLatitude(), 
-                otherUser.getLongitude()
+        return cacheService.getMatchScore(
+                currentUser.getUser().getId(),
+                otherUser.getUser().getId(),
+                () -> computeMatchScore(currentUser, otherUser, currentUserSkills, skillNameCache)
         );
+    }
 
-        // Build and return the result
-        return MatchScoreDTO.builder()
-                .userId(otherUser.getUser().getId())
-                .displayName(otherUser.getDisplayName())
-                .bio(otherUser.getBio())
-                .gender(String.valueOf(otherUser.getGender()))
-                .experienceYrs(otherUser.getExperienceYrs())
-                .distanceKm(distance)
-                .score(totalScore)
-                .commonSkills(commonSkills)
-                .build();
+    private MatchScoreDTO computeMatchScore(UserProfile currentUser, UserProfile otherUser,
+                                            Map<Integer, Integer> currentUserSkills,
+                                            Map<Long, String> skillNameCache) {
+        // Score from the skill vector index, the same path as ranked pages, instead of loading the other user's skills
+        SkillVector currentVector = SkillVector.of(currentUserSkills);
+        SkillVector otherVector = skillVectorIndex.get(otherUser.getUser().getId());
+        return scoreCandidate(currentUser, otherUser, currentVector, otherVector,
+                getSkillNames(currentVector, skillNameCache != null ? skillNameCache : new HashMap<>()));
     }
 
     private void validatePagination(int page, int size) {
@@ -146,6 +296,13 @@ public class MatchmakingService {
         if (size < 1) {
             throw new IllegalArgumentException("Page size must be at least 1");
         }
+        if (size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must not be greater than " + MAX_PAGE_SIZE);
+        }
+        // Pages are served as slices of a ranking at least this deep
+        if ((long) (page + 1) * size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page number is too large");
+        }
     }
     
     private User getUserByUsername(String username) {
@@ -167,68 +324,174 @@ public class MatchmakingService {
         }
     }
     
-    private List<UserProfile> getPaginatedPotentialMatches(String userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "user.id"));
-        return userProfileRepository.findByUserIdNot(userId, pageable).getContent();
+    /**
+     * Get the user's ranking from the cache, then the precomputed recommendations,
+     * computing it on the request path only if neither is deep enough for the requested page
+     */
+    private MatchRanking getRanking(UserProfile currentProfile, SkillVector currentUserSkills, int endExclusive) {
+        String userId = currentProfile.getId();
+        MatchRanking cached = cacheService.getCachedRanking(userId);
+        if (cached != null && cached.covers(endExclusive)) {
+            return cached;
+        }
+        
+        MatchRanking ranking = matchRecommendationService.findRanking(userId)
+                .filter(precomputed -> precomputed.covers(endExclusive))
+                .orElseGet(() -> matchRankingEngine.rank(currentProfile, currentUserSkills, endExclusive));
+        cacheService.cacheRanking(userId, ranking);
+        return ranking;
     }
     
-    private Map<Integer, Integer> getUserSkills(String userId) {
-        return userSkillRepository.findByUserId(userId).stream()
-                .collect(Collectors.toMap(
-                        userSkill -> userSkill.getSkill().getId(),
-                        UserSkill::getLevel,
-                        (existing, replacement) -> existing,
-                        LinkedHashMap::new
-                ));
+    /**
+     * Load profiles by ID, keeping the order of the given IDs
+     */
+    private List<UserProfile> findProfilesInOrder(List<String> profileIds) {
+        Map<String, UserProfile> profilesById = userProfileRepository.findAllById(profileIds).stream()
+                .collect(Collectors.toMap(UserProfile::getId, profile -> profile));
+        return profileIds.stream()
+                .map(profilesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
     
-    private List<MatchScoreDTO> calculateMatchScores(UserProfile currentUser, 
-                                                   List<UserProfile> potentialMatches,
-                                                   Map<Integer, Integer> currentUserSkills) {
-        return potentialMatches.stream()
-                .map(profile -> calculateMatchScore(currentUser, profile, currentUserSkills, null))
-                .sorted(Comparator.comparingDouble(MatchScoreDTO::getScore).reversed())
+    /**
+     * Build the match results for a ranked page, keeping the ranking order
+     */
+    private List<MatchScoreDTO> buildMatchPage(UserProfile currentUser,
+                                               List<RankedMatch> pageMatches,
+                                               SkillVector currentUserSkills) {
+        List<String> candidateIds = pageMatches.stream()
+                .map(RankedMatch::getUserId)
                 .collect(Collectors.toList());
+        
+        return scoreProfiles(currentUser, currentUserSkills, findProfilesInOrder(candidateIds));
     }
     
     /**
-     * Extract common skill names between current user and another user
-     * @param currentUserSkills Map of skill IDs to levels for current user
-     * @param otherUserSkills List of skills for the other user
-     * @param skillNameCache Cache for skill names to reduce DB lookups
-     * @return List of common skill names
-     */
-    private List<String> getCommonSkills(
-            Map<Integer, Integer> currentUserSkills,
-            List<UserSkill> otherUserSkills,
-            Map<Long, String> skillNameCache) {
-        
-        return otherUserSkills.stream()
-                .filter(skill -> currentUserSkills.containsKey(skill.getSkill().getId()))
-                .map(skill -> skillNameCache.computeIfAbsent(
-                        Long.valueOf(skill.getSkill().getId()),
-                        k -> skill.getSkill().getName()
-                ))
+     * Score already loaded candidate profiles for a user, keeping their order.
+     * Candidate skills and skill names are loaded in bulk, so the cost doesn't grow by a query per candidate.
+     * @param currentUser The current user's profile
+     * @param currentUserSkills The current user's skill vector
+     * @param candidates The profiles to score
+     * @return Match results in the order of the given profiles
+     */
+    public List<MatchScoreDTO> scoreProfiles(UserProfile currentUser,
+                                             SkillVector currentUserSkills,
+                                             List<UserProfile> candidates) {
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> candidateIds = candidates.stream()
+                .map(UserProfile::getId)
                 .collect(Collectors.toList());
+        
+        Map<String, SkillVector> candidateSkills = skillVectorIndex.getAll(candidateIds);
+        Map<Integer, String> skillNames = getSkillNames(currentUserSkills);
+        
+        return candidates.stream()
+                .map(profile -> scoreCandidate(
+                        currentUser,
+                        profile,
+                        currentUserSkills,
+                        candidateSkills.getOrDefault(profile.getId(), SkillVector.EMPTY),
+                        skillNames))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Build the match result for a candidate whose skill vector is already loaded
+     */
+    private MatchScoreDTO scoreCandidate(UserProfile currentUser,
+                                         UserProfile otherUser,
+                                         SkillVector currentUserSkills,
+                                         SkillVector otherUserSkills,
+                                         Map<Integer, String> skillNames) {
+        double totalScore = matchScoringService.calculateMatchScore(
+                currentUser,
+                otherUser,
+                currentUserSkills,
+                otherUserSkills
+        );
+        
+        List<String> commonSkills = new ArrayList<>();
+        for (int i = 0; i < currentUserSkills.size(); i++) {
+            int skillId = currentUserSkills.skillIdAt(i);
+            if (otherUserSkills.contains(skillId) && skillNames.containsKey(skillId)) {
+                commonSkills.add(skillNames.get(skillId));
+            }
+        }
+        
+        double distance = distanceCalculationService.calculateDistance(
+                currentUser.getLatitude(), 
+                currentUser.getLongitude(),
+                otherUser.getLatitude(), 
+                otherUser.getLongitude()
+        );
+        
+        return MatchScoreDTO.builder()
+                .userId(otherUser.getUser().getId())
+                .displayName(otherUser.getDisplayName())
+                .bio(otherUser.getBio())
+                .gender(String.valueOf(otherUser.getGender()))
+                .experienceYrs(otherUser.getExperienceYrs())
+                .distanceKm(distance)
+                .score(totalScore)
+                .commonSkills(commonSkills)
+                .build();
+    }
+    
+    /**
+     * Resolve names for the skills in a vector in a single query
+     */
+    private Map<Integer, String> getSkillNames(SkillVector skills) {
+        if (skills.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Integer> skillIds = new ArrayList<>(skills.size());
+        for (int i = 0; i < skills.size(); i++) {
+            skillIds.add(skills.skillIdAt(i));
+        }
+        return skillRepository.findAllById(skillIds).stream()
+                .collect(Collectors.toMap(Skill::getId, Skill::getName));
+    }
+    
+    /**
+     * Resolve names for the skills in a vector, querying only those missing from the caller's name cache
+     * @param skillNameCache Cache for skill names to reduce DB lookups; filled with the names loaded
+     */
+    private Map<Integer, String> getSkillNames(SkillVector skills, Map<Long, String> skillNameCache) {
+        Map<Integer, String> names = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < skills.size(); i++) {
+            int skillId = skills.skillIdAt(i);
+            String name = skillNameCache.get((long) skillId);
+            if (name != null) {
+                names.put(skillId, name);
+            } else {
+                missing.add(skillId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            skillRepository.findAllById(missing).forEach(skill -> {
+                names.put(skill.getId(), skill.getName());
+                skillNameCache.put(Long.valueOf(skill.getId()), skill.getName());
+            });
+        }
+        return names;
     }
     
     /**
      * Clear cache when user data changes
      */
-    @Caching(evict = {
-        @CacheEvict(value = "matches", allEntries = true),
-        @CacheEvict(value = "matchScore", key = "#userId + '*'", allEntries = true)
-    })
     public void clearUserMatchCache(String userId) {
         log.info("Clearing match cache for user: {}", userId);
+        cacheService.evictUser(userId);
     }
     
     /**
-     * Scheduled cache eviction (runs every hour)
+     * Clear all match caches
      */
-    @Scheduled(fixedRate = 3600000) // 1 hour in milliseconds
-    @CacheEvict(value = {"matches", "matchScore"}, allEntries = true)
     public void clearAllMatchCaches() {
-        log.info("Scheduled cache eviction for all match caches");
+        cacheService.clearAllCaches();
     }
 }
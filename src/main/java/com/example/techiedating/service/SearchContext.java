@@ -0,0 +1,24 @@
+package com.example.techiedating.service;
+
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.service.index.SkillVector;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Everything about the searching user that a search needs, loaded once per request
+ */
+@Getter
+@AllArgsConstructor
+public class SearchContext {
+    private final UserProfile profile;
+    private final SkillVector skills;
+
+    // Reference point for distance filtering: the requested point, or the user's own location
+    private final Double latitude;
+    private final Double longitude;
+
+    public String getUserId() {
+        return profile.getId();
+    }
+}
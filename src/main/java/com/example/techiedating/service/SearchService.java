@@ -1,25 +1,48 @@
 package com.example.techiedating.service;
 
+import com.example.techiedating.dto.CountStrategy;
 import com.example.techiedating.dto.MatchScoreDTO;
+import com.example.techiedating.dto.PageCursor;
+import com.example.techiedating.dto.SearchFacetsDTO;
 import com.example.techiedating.dto.SearchRequestDTO;
 import com.example.techiedating.dto.SearchResultDTO;
+import com.example.techiedating.exception.ProfileNotFoundException;
 import com.example.techiedating.model.User;
 import com.example.techiedating.model.UserProfile;
-import com.example.techiedating.model.UserSkill;
+import com.example.techiedating.repository.ProfileFacets;
+import com.example.techiedating.repository.ProfileSearchCriteria;
+import com.example.techiedating.repository.ProfileSortKey;
 import com.example.techiedating.repository.UserProfileRepository;
 import com.example.techiedating.repository.UserRepository;
-import com.example.techiedating.repository.UserSkillRepository;
+import com.example.techiedating.service.cache.SearchCacheService;
+import com.example.techiedating.service.cache.SearchCandidates;
+import com.example.techiedating.service.index.GeoCandidate;
+import com.example.techiedating.service.index.GeoGridIndex;
+import com.example.techiedating.service.index.ProfileAttributeIndex;
+import com.example.techiedating.service.index.ProfileSelection;
+import com.example.techiedating.service.index.ProfileTextSearch;
+import com.example.techiedating.service.index.SkillVector;
+import com.example.techiedating.service.index.SkillVectorIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,123 +51,345 @@ import java.util.stream.Collectors;
 public class SearchService {
 
     private final UserProfileRepository userProfileRepository;
-    private final UserSkillRepository userSkillRepository;
     private final MatchmakingService matchmakingService;
     private final UserRepository userRepository;
+    private final SkillVectorIndex skillVectorIndex;
+    private final ObjectProvider<ProfileTextSearch> profileTextSearch;
+    private final SearchCacheService searchCacheService;
+    private final ProfileAttributeIndex profileAttributeIndex;
+    private final GeoGridIndex geoGridIndex;
+
+    // Upper bound on text matches considered per search; they are ranked before filtering and paging
+    @Value("${search.text.max-results:1000}")
+    private int textSearchMaxResults;
+
+    // Upper bound on the nearest profiles and best matches that distance and match score sorts page through
+    @Value("${search.sort.max-ranked:1000}")
+    private int maxRankedResults;
+
+    // Attribute index selections up to this size restrict the query to their IDs; larger ones only filter
+    @Value("${search.attribute-index.max-candidates:1000}")
+    private int attributeIndexMaxCandidates;
+
+    // Leading result IDs cached per search; pages beyond them of longer searches go to the database
+    @Value("${search.cache.max-ids:2000}")
+    private int cachedCandidateIds;
 
     /**
-     * Search for profiles based on the provided criteria
+     * Search for profiles based on the provided criteria.
+     * With a cursor, the page after it is fetched by keyset instead of by offset.
+     * The total is counted according to the request's count strategy; cursor pages aren't counted by default.
      */
+    @Transactional(readOnly = true)
     public SearchResultDTO<MatchScoreDTO> searchProfiles(SearchRequestDTO request, String userName) {
 
-        Optional<User> user = userRepository.findByUsername(userName);
-        // Build pageable with sorting
+        // Load everything about the searching user once for the whole request
+        SearchContext context = buildContext(request, userName);
+        
         Pageable pageable = createPageable(request);
+        SearchSortMode sortMode = requestedSortMode(request);
+        boolean descending = isDescending(request, sortMode);
+        PageCursor cursor = request.getCursor() != null ? PageCursor.decode(request.getCursor()) : null;
         
-        // Get all profiles that match the basic criteria (excluding current user)
-        Page<UserProfile> profiles = userProfileRepository.searchProfiles(
-                user.get().getId(),
-                request.getQuery() != null ? request.getQuery().trim() : null,
-                request.getGender(),
-                request.getMinExperience(),
-                request.getMaxExperience(),
-                pageable
-        );
+        // Every filter, including skills and distance, is applied by the query before pagination
+        ProfileSearchCriteria criteria = buildCriteria(request, context, sortMode, descending, cursor);
+        SearchCandidates candidates = searchCacheService.getCandidates(searchKey(criteria),
+                () -> loadCandidates(criteria));
+        Slice<UserProfile> profiles = pageFromCandidates(candidates, criteria, pageable);
+        if (profiles == null) {
+            profiles = userProfileRepository.searchProfiles(criteria, pageable);
+        }
         
-        // Convert to MatchScoreDTO with scores
-        List<MatchScoreDTO> results = profiles.getContent().stream()
-                .map(profile -> {
-                    // Get user skills for skill-based filtering
-                    LinkedHashMap<Integer, Integer> profileSkills = userSkillRepository.findByUserId(profile.getId()).stream()
-                            .collect(Collectors.toMap(
-                                    userSkill -> userSkill.getSkill().getId(),
-                                    UserSkill::getLevel,
-                                    (existing, replacement) -> existing,
-                                    LinkedHashMap::new
-                            ));
-                    
-                    // Get current user's skills for score calculation
-                    LinkedHashMap<Integer, Integer> currentUserSkills = userSkillRepository.findByUserId(user.get().getId()).stream()
-                            .collect(Collectors.toMap(
-                                    userSkill -> userSkill.getSkill().getId(),
-                                    UserSkill::getLevel,
-                                    (existing, replacement) -> existing,
-                                    LinkedHashMap::new
-                            ));
-                    
-                    // Calculate match score
-                    return matchmakingService.calculateMatchScore(
-                            userProfileRepository.findByUserId(user.get().getId())
-                                    .orElseThrow(() -> new IllegalArgumentException("Current user profile not found")),
-                            profile,
-                            currentUserSkills,
-                            null // We'll handle skill names separately if needed
-                    );
-                })
-                // Apply skill filter if specified
-                .filter(result -> request.getSkillIds() == null || request.getSkillIds().isEmpty() || 
-                        result.getCommonSkills().stream()
-                                .anyMatch(skill -> request.getSkillIds().contains(skill)))
-                // Apply distance filter if specified
-                .filter(result -> request.getMaxDistanceKm() == null || 
-                        (result.getDistanceKm() != null && result.getDistanceKm() <= request.getMaxDistanceKm()))
-                .collect(Collectors.toList());
+        CountStrategy countStrategy = request.getCountStrategy() != null
+                ? request.getCountStrategy()
+                : cursor != null ? CountStrategy.NONE : CountStrategy.EXACT;
+        Long total = countStrategy != CountStrategy.NONE && candidates.isComplete()
+                ? Long.valueOf(candidates.getIds().size())
+                : countTotal(criteria, pageable, profiles, countStrategy);
         
-        // Create a custom page for the filtered results
-        Page<MatchScoreDTO> resultPage = createCustomPage(results, pageable, profiles.getTotalElements());
+        // Score the whole page at once instead of querying per result
+        List<MatchScoreDTO> results = matchmakingService.scoreProfiles(
+                context.getProfile(),
+                context.getSkills(),
+                profiles.getContent()
+        );
         
-        return SearchResultDTO.fromPage(resultPage);
+        String nextCursor = profiles.hasNext() ? nextCursor(criteria, sortMode, profiles.getContent()) : null;
+        SearchResultDTO<MatchScoreDTO> result = SearchResultDTO.fromSlice(
+                new SliceImpl<>(results, pageable, profiles.hasNext()), nextCursor, total, countStrategy);
+        if (Boolean.TRUE.equals(request.getIncludeFacets())) {
+            result.setFacets(countFacets(criteria, context));
+        }
+        return result;
     }
     
     /**
-     * Create a pageable with sorting based on the request
+     * Identify a search by everything that selects and orders its results, but not by its page.
+     * The searching user is part of the key since they are excluded from their own results.
      */
-    private Pageable createPageable(SearchRequestDTO request) {
-        // Default sorting
-        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
+    private static String searchKey(ProfileSearchCriteria criteria) {
+        String key = String.join("|", criteria.getCurrentUserId(), criteria.getSortKey().name(),
+                String.valueOf(criteria.isDescending()), criteria.filterFingerprint());
+        return DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Load the leading result IDs from the start of the search, plus one to tell if there are more
+     */
+    private SearchCandidates loadCandidates(ProfileSearchCriteria criteria) {
+        ProfileSearchCriteria fromStart = criteria.toBuilder().afterValue(null).afterId(null).build();
+        List<String> ids = userProfileRepository.searchProfileIds(fromStart, cachedCandidateIds + 1);
+        boolean complete = ids.size() <= cachedCandidateIds;
+        return new SearchCandidates(complete ? ids : new ArrayList<>(ids.subList(0, cachedCandidateIds)), complete);
+    }
+    
+    /**
+     * Serve the page from the cached IDs, loading only its own profiles.
+     * Returns null if the page lies beyond them or its cursor isn't among them.
+     */
+    private Slice<UserProfile> pageFromCandidates(SearchCandidates candidates, ProfileSearchCriteria criteria,
+                                                  Pageable pageable) {
+        List<String> ids = candidates.getIds();
+        long from = criteria.hasKeyset() ? ids.indexOf(criteria.getAfterId()) + 1 : pageable.getOffset();
+        if (criteria.hasKeyset() && from == 0) {
+            return null;
+        }
+        long to = from + pageable.getPageSize();
+        if (to > ids.size() && !candidates.isComplete()) {
+            return null;
+        }
         
-        // Apply custom sorting if specified
-        if (request.getSortBy() != null && !request.getSortBy().isEmpty()) {
-            List<Sort.Order> orders = request.getSortBy().stream()
-                    .map(sortParam -> {
-                        String[] parts = sortParam.split(",");
-                        String property = parts[0].trim();
-                        Sort.Direction direction = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim()) ? 
-                                Sort.Direction.DESC : Sort.Direction.ASC;
-                        return new Sort.Order(direction, property);
-                    })
-                    .collect(Collectors.toList());
-            
-            sort = Sort.by(orders);
+        List<String> pageIds = ids.subList((int) Math.min(from, ids.size()), (int) Math.min(to, ids.size()));
+        boolean hasNext = to < ids.size() || !candidates.isComplete();
+        return new SliceImpl<>(userProfileRepository.findProfilesInOrder(pageIds), pageable, hasNext);
+    }
+    
+    /**
+     * Count all matches per facet value with grouped queries; skill categories count the searcher's skills
+     */
+    private SearchFacetsDTO countFacets(ProfileSearchCriteria criteria, SearchContext context) {
+        SkillVector skills = context.getSkills();
+        List<Integer> skillIds = new ArrayList<>(skills.size());
+        for (int i = 0; i < skills.size(); i++) {
+            skillIds.add(skills.skillIdAt(i));
         }
         
-        // Default pagination if not specified
-        int page = request.getPage() != null ? request.getPage() : 0;
-        int size = request.getSize() != null ? request.getSize() : 10;
+        ProfileFacets facets = userProfileRepository.countFacets(criteria, skillIds);
+        return SearchFacetsDTO.builder()
+                .genders(byName(facets.getGenders()))
+                .experience(facets.getExperience())
+                .skillCategories(byName(facets.getSkillCategories()))
+                .build();
+    }
+    
+    private static Map<String, Long> byName(Map<? extends Enum<?>, Long> counts) {
+        Map<String, Long> byName = new LinkedHashMap<>();
+        counts.forEach((value, count) -> byName.put(value.name(), count));
+        return byName;
+    }
+    
+    /**
+     * Count all results with the given strategy.
+     * An offset page that ends the results gives the exact total without a query.
+     */
+    private Long countTotal(ProfileSearchCriteria criteria, Pageable pageable, Slice<UserProfile> profiles,
+                            CountStrategy countStrategy) {
+        if (countStrategy == CountStrategy.NONE) {
+            return null;
+        }
+        if (!criteria.hasKeyset() && !profiles.hasNext() && (pageable.getOffset() == 0 || profiles.hasContent())) {
+            return pageable.getOffset() + profiles.getNumberOfElements();
+        }
+        if (countStrategy == CountStrategy.ESTIMATED) {
+            return searchCacheService.getCount(criteria.filterFingerprint(),
+                    () -> userProfileRepository.countProfiles(criteria));
+        }
+        return userProfileRepository.countProfiles(criteria);
+    }
+    
+    /**
+     * Encode the keyset position after the last profile of a page; ranked searches resume at a rank
+     */
+    private String nextCursor(ProfileSearchCriteria criteria, SearchSortMode sortMode, List<UserProfile> profiles) {
+        UserProfile last = profiles.get(profiles.size() - 1);
+        if (criteria.isRanked()) {
+            return new PageCursor(rankedSortName(sortMode), false,
+                    String.valueOf(criteria.getRankedIds().indexOf(last.getId())), last.getId()).encode();
+        }
+        return new PageCursor(criteria.getSortKey().getProperty(), criteria.isDescending(),
+                criteria.getSortKey().cursorValue(last), last.getId()).encode();
+    }
+    
+    /**
+     * Load the searching user's profile, skills and reference point
+     */
+    private SearchContext buildContext(SearchRequestDTO request, String userName) {
+        User user = userRepository.findByUsername(userName)
+                .orElseThrow(() -> new ProfileNotFoundException("User not found with username: " + userName));
+        UserProfile profile = userProfileRepository.findByUserId(user.getId())
+                .orElseThrow(() -> new ProfileNotFoundException("Profile not found for user: " + userName));
         
-        return PageRequest.of(page, size, sort);
+        // The radius is measured from the requested point, or from the user's own location if none was given
+        boolean hasRequestedPoint = request.getLatitude() != null && request.getLongitude() != null;
+        return new SearchContext(
+                profile,
+                skillVectorIndex.get(profile.getId()),
+                hasRequestedPoint ? request.getLatitude() : profile.getLatitude(),
+                hasRequestedPoint ? request.getLongitude() : profile.getLongitude()
+        );
     }
     
     /**
-     * Create a custom page from a list of results
+     * Translate the request into repository search criteria.
+     * Text queries go to the configured text search, whose matches replace the LIKE filter and are ordered
+     * by relevance unless another sort is requested. Distance and match score sorts order the nearest
+     * profiles or best matches instead, and keyset sorts only restrict the query to the text matches.
+     * Attribute filters are first intersected in the attribute index, which narrows the query to the
+     * selected profiles; the query still applies every filter, so the index can't widen the results.
+     * It can narrow them too far: profiles created or changed on another instance are missing from it
+     * until its next periodic rebuild.
      */
-    private <T> Page<T> createCustomPage(List<T> items, Pageable pageable, long total) {
-        int pageSize = pageable.getPageSize();
-        int currentPage = pageable.getPageNumber();
-        int startItem = currentPage * pageSize;
+    private ProfileSearchCriteria buildCriteria(SearchRequestDTO request, SearchContext context,
+                                                SearchSortMode sortMode, boolean descending, PageCursor cursor) {
+        String query = request.getQuery() != null ? request.getQuery().trim() : null;
+        List<String> textMatches = null;
+        ProfileTextSearch textSearch = profileTextSearch.getIfAvailable();
+        // Single characters aren't indexed, so they keep the LIKE search, as does every query until the index is ready
+        if (textSearch != null && textSearch.isReady() && query != null && query.length() > 1) {
+            textMatches = textSearch.search(query, textSearchMaxResults);
+            query = null;
+        }
         
-        List<T> pageContent;
-        if (items.size() < startItem) {
-            pageContent = List.of();
+        List<String> rankedIds = null;
+        List<String> candidateIds = null;
+        if (sortMode == null || sortMode == SearchSortMode.RELEVANCE) {
+            if (sortMode != null && textMatches == null) {
+                throw new IllegalArgumentException("Sorting by relevance requires a search query");
+            }
+            rankedIds = textMatches;
+        } else if (sortMode.isRanked()) {
+            rankedIds = sortMode == SearchSortMode.DISTANCE
+                    ? nearestIds(request, context)
+                    : matchmakingService.findRankedMatchIds(context.getProfile(), context.getSkills(), maxRankedResults);
+            if (textMatches != null) {
+                rankedIds.retainAll(new HashSet<>(textMatches));
+            }
         } else {
-            int toIndex = Math.min(startItem + pageSize, items.size());
-            pageContent = items.subList(startItem, toIndex);
+            candidateIds = textMatches;
         }
         
-        return new org.springframework.data.domain.PageImpl<>(
-                pageContent, 
-                pageable, 
-                Math.min(items.size(), total)
-        );
+        // Experience is only sorted by where it is known, so the experience index serves the order
+        Integer minExperience = request.getMinExperience();
+        if (sortMode == SearchSortMode.EXPERIENCE && minExperience == null) {
+            minExperience = 0;
+        }
+        
+        List<Integer> skillIds = request.getSkillIds() != null
+                ? request.getSkillIds().stream().map(Long::intValue).collect(Collectors.toList())
+                : null;
+        ProfileSelection selection = profileAttributeIndex.select(request.getGender(),
+                minExperience, request.getMaxExperience(), skillIds, request.getInterests());
+        if (selection != null) {
+            if (rankedIds != null) {
+                rankedIds = rankedIds.stream().filter(selection::contains).collect(Collectors.toList());
+            } else if (candidateIds != null) {
+                candidateIds = candidateIds.stream().filter(selection::contains).collect(Collectors.toList());
+            } else if (selection.size() <= attributeIndexMaxCandidates) {
+                candidateIds = selection.ids();
+            }
+        }
+        
+        ProfileSortKey sortKey = sortMode != null && !sortMode.isRanked() ? sortMode.getSortKey() : ProfileSortKey.ID;
+        if (rankedIds != null) {
+            descending = false;
+        }
+        
+        // A cursor only resumes the order it was issued for
+        if (cursor != null) {
+            if (rankedIds != null) {
+                cursor.requireSortKey(rankedSortName(sortMode), false);
+            } else {
+                cursor.requireSortKey(sortKey.getProperty(), descending);
+            }
+        }
+        
+        return ProfileSearchCriteria.builder()
+                .currentUserId(context.getUserId())
+                .query(query)
+                .rankedIds(rankedIds)
+                .candidateIds(candidateIds)
+                .gender(request.getGender())
+                .minExperience(minExperience)
+                .maxExperience(request.getMaxExperience())
+                .skillIds(skillIds)
+                .interests(request.getInterests())
+                .latitude(context.getLatitude())
+                .longitude(context.getLongitude())
+                .maxDistanceKm(request.getMaxDistanceKm())
+                .sortKey(sortKey)
+                .descending(descending)
+                .afterValue(cursor != null ? cursor.getLastValue() : null)
+                .afterId(cursor != null ? cursor.getLastId() : null)
+                .build();
+    }
+    
+    /**
+     * IDs of the profiles nearest to the reference point, nearest first, within the radius if one was given
+     */
+    private List<String> nearestIds(SearchRequestDTO request, SearchContext context) {
+        if (context.getLatitude() == null || context.getLongitude() == null) {
+            throw new IllegalArgumentException("Sorting by distance requires a location");
+        }
+        return geoGridIndex.findNearest(context.getLatitude(), context.getLongitude(), request.getMaxDistanceKm(),
+                        maxRankedResults, context.getUserId()).stream()
+                .map(GeoCandidate::getUserId)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * The cursor sort key of a ranked search; text searches without a requested sort are ordered by relevance
+     */
+    private static String rankedSortName(SearchSortMode sortMode) {
+        return (sortMode != null ? sortMode : SearchSortMode.RELEVANCE).getName();
+    }
+    
+    /**
+     * The requested sort mode, or null for the default order: relevance for text searches, otherwise profile ID.
+     * Only the first sort is used, since every mode is already a total order.
+     */
+    private static SearchSortMode requestedSortMode(SearchRequestDTO request) {
+        if (request.getSortBy() == null || request.getSortBy().isEmpty()) {
+            return null;
+        }
+        return SearchSortMode.fromName(request.getSortBy().get(0).split(",")[0].trim());
+    }
+    
+    /**
+     * Whether the requested sort is descending; ranked modes only support their own direction
+     */
+    private static boolean isDescending(SearchRequestDTO request, SearchSortMode sortMode) {
+        if (sortMode == null) {
+            return false;
+        }
+        String[] parts = request.getSortBy().get(0).split(",");
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromString(parts[1].trim())
+                : sortMode.getDefaultDirection();
+        if (sortMode.isRanked() && direction != sortMode.getDefaultDirection()) {
+            throw new IllegalArgumentException("Sorting by " + sortMode.getName() + " only supports "
+                    + sortMode.getDefaultDirection().name().toLowerCase(Locale.ROOT) + " order");
+        }
+        return direction.isDescending();
+    }
+    
+    /**
+     * Create a pageable for the requested page; its order is chosen by the sort mode
+     */
+    private Pageable createPageable(SearchRequestDTO request) {
+        // Default pagination if not specified; a cursor replaces the page number
+        int page = request.getPage() != null && request.getCursor() == null ? request.getPage() : 0;
+        int size = request.getSize() != null ? request.getSize() : 10;
+        
+        return PageRequest.of(page, size);
     }
 }
@@ -0,0 +1,70 @@
+package com.example.techiedating.service;
+
+import com.example.techiedating.repository.ProfileSortKey;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The orders a profile search can be sorted in. None of them sorts an unbounded set: keyset modes
+ * read their column's index in order, and ranked modes order a bounded list of IDs before the query.
+ */
+public enum SearchSortMode {
+    // Text search rank of the query's matches, best first
+    RELEVANCE("relevance", null, Sort.Direction.DESC),
+    // The nearest profiles from the geospatial index, nearest first
+    DISTANCE("distance", null, Sort.Direction.ASC),
+    // Years of experience; profiles without experience are left out
+    EXPERIENCE("experience", ProfileSortKey.EXPERIENCE, Sort.Direction.DESC),
+    // Account creation time, newest first by default
+    RECENCY("recency", ProfileSortKey.RECENCY, Sort.Direction.DESC),
+    // The searching user's match ranking, best first
+    MATCH_SCORE("matchScore", null, Sort.Direction.DESC);
+
+    private final String name;
+    private final ProfileSortKey sortKey;
+    private final Sort.Direction defaultDirection;
+
+    SearchSortMode(String name, ProfileSortKey sortKey, Sort.Direction defaultDirection) {
+        this.name = name;
+        this.sortKey = sortKey;
+        this.defaultDirection = defaultDirection;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The indexed column to page through by keyset, or null for a ranked mode
+     */
+    public ProfileSortKey getSortKey() {
+        return sortKey;
+    }
+
+    public Sort.Direction getDefaultDirection() {
+        return defaultDirection;
+    }
+
+    /**
+     * Ranked modes are ordered in memory and only support their default direction
+     */
+    public boolean isRanked() {
+        return sortKey == null;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no sort mode with the name, ignoring case and dashes
+     */
+    public static SearchSortMode fromName(String name) {
+        String normalized = name.replace("-", "").replace("_", "");
+        for (SearchSortMode mode : values()) {
+            if (mode.name.equalsIgnoreCase(normalized)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + name + "; supported sorts are "
+                + Arrays.stream(values()).map(SearchSortMode::getName).collect(Collectors.joining(", ")));
+    }
+}
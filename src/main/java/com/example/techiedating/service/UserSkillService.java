@@ -10,10 +10,15 @@ import com.example.techiedating.model.UserSkill;
 import com.example.techiedating.repository.SkillRepository;
 import com.example.techiedating.repository.UserRepository;
 import com.example.techiedating.repository.UserSkillRepository;
+import com.example.techiedating.service.index.ProfileAttributeIndex;
+import com.example.techiedating.service.index.SkillVectorIndex;
+import com.example.techiedating.service.ranking.MatchRecommendationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,6 +32,9 @@ public class UserSkillService {
     private final UserRepository userRepository;
     private final SkillRepository skillRepository;
     private final UserSkillMapper userSkillMapper;
+    private final SkillVectorIndex skillVectorIndex;
+    private final ProfileAttributeIndex profileAttributeIndex;
+    private final MatchRecommendationService matchRecommendationService;
 
     @Transactional(readOnly = true)
     public List<UserSkillDTO> getUserSkills(String username) {
@@ -59,6 +67,11 @@ public class UserSkillService {
                 .build();
         
         UserSkill savedUserSkill = userSkillRepository.save(userSkill);
+        afterCommit(() -> {
+            skillVectorIndex.evict(userId);
+            profileAttributeIndex.addSkill(userId, skill.getId());
+            matchRecommendationService.markStale(userId);
+        });
         return userSkillMapper.toUserSkillDTO(savedUserSkill);
     }
 
@@ -75,6 +88,10 @@ public class UserSkillService {
         userSkill.setLevel(request.getLevel());
         
         UserSkill updatedUserSkill = userSkillRepository.save(userSkill);
+        afterCommit(() -> {
+            skillVectorIndex.evict(userId);
+            matchRecommendationService.markStale(userId);
+        });
         return userSkillMapper.toUserSkillDTO(updatedUserSkill);
     }
 
@@ -88,6 +105,28 @@ public class UserSkillService {
                 .orElseThrow(() -> new ResourceNotFoundException("User skill not found with id: " + userSkillId));
         
         userSkillRepository.delete(userSkill);
+        Integer skillId = userSkill.getSkill().getId();
+        afterCommit(() -> {
+            skillVectorIndex.evict(userId);
+            profileAttributeIndex.removeSkill(userId, skillId);
+            matchRecommendationService.markStale(userId);
+        });
+    }
+
+    /**
+     * Update the in-memory indexes only once the skill change has committed, so a rollback leaves them untouched
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private String getUserId(String username) {
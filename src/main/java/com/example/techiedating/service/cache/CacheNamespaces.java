@@ -0,0 +1,67 @@
+package com.example.techiedating.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Versioned key namespaces for per-owner cache invalidation.
+ * Keys are prefixed with the owner's current version, so invalidating an owner (a user or a conversation)
+ * is a single write of a new version instead of a scan or an allEntries eviction;
+ * entries under the old version are never read again and expire through their TTL.
+ * Versions are random, never a fixed initial value, so a version entry that was evicted or expired
+ * is replaced by a new one rather than one that earlier entries may still be stored under.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheNamespaces {
+
+    public static final String VERSIONS_CACHE = "cacheVersions";
+
+    // Only used when the versions cache isn't configured, in which case nothing can be invalidated anyway
+    private static final String UNVERSIONED = "0";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Build a cache key inside the owner's current namespace
+     */
+    public String key(String owner, String key) {
+        return owner + ":" + version(owner) + ":" + key;
+    }
+
+    /**
+     * Invalidate every key in the owner's namespace
+     */
+    public void invalidate(String owner) {
+        Cache versions = cacheManager.getCache(VERSIONS_CACHE);
+        if (versions != null) {
+            versions.put(owner, newVersion());
+        }
+    }
+
+    private String version(String owner) {
+        Cache versions = cacheManager.getCache(VERSIONS_CACHE);
+        if (versions == null) {
+            return UNVERSIONED;
+        }
+        String version = versions.get(owner, String.class);
+        if (version != null) {
+            return version;
+        }
+        // Start a fresh namespace; if another thread or node started one first, use theirs
+        String created = newVersion();
+        Cache.ValueWrapper existing = versions.putIfAbsent(owner, created);
+        return existing != null && existing.get() != null ? (String) existing.get() : created;
+    }
+
+    /**
+     * A random version can't collide with an earlier one, even when two nodes invalidate at once
+     */
+    private static String newVersion() {
+        return Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    }
+}
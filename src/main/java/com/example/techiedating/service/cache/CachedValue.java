@@ -0,0 +1,20 @@
+package com.example.techiedating.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A cached value with the time after which it should be refreshed ahead of its hard expiry
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedValue {
+    private Object value;
+    private long refreshAfterEpochMs;
+
+    public boolean isDueForRefresh(long nowEpochMs) {
+        return nowEpochMs >= refreshAfterEpochMs;
+    }
+}
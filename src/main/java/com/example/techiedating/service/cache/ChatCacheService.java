@@ -0,0 +1,62 @@
+package com.example.techiedating.service.cache;
+
+import com.example.techiedating.model.ChatMessage;
+import com.example.techiedating.model.ConversationSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Service for managing chat-related caching operations.
+ * Conversation pages live in a per-conversation namespace, conversation lists
+ * are keyed by user, so a message or read receipt only drops the caches of the two participants.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatCacheService {
+
+    private static final String CONVERSATION_CACHE = "conversation";
+    private static final String USER_CONVERSATIONS_CACHE = "userConversations";
+
+    private final ReadThroughCache readThroughCache;
+    private final CacheNamespaces cacheNamespaces;
+
+    /**
+     * Get a page of a conversation, loading and caching it on a miss
+     */
+    public Page<ChatMessage> getConversation(String conversationId, int page, int size,
+                                             Supplier<Page<ChatMessage>> loader) {
+        return readThroughCache.get(CONVERSATION_CACHE, cacheNamespaces.key(conversationId, page + "_" + size), loader);
+    }
+
+    /**
+     * Get a user's conversation list, loading and caching it on a miss
+     */
+    public List<ConversationSummary> getUserConversations(String userId, Supplier<List<ConversationSummary>> loader) {
+        return readThroughCache.get(USER_CONVERSATIONS_CACHE, userId, loader);
+    }
+
+    /**
+     * Drop everything cached for a conversation after a message in it was added or changed
+     */
+    public void evictConversation(String conversationId, String senderId, String recipientId) {
+        log.debug("Clearing chat cache for conversation: {}", conversationId);
+        cacheNamespaces.invalidate(conversationId);
+        readThroughCache.evict(USER_CONVERSATIONS_CACHE, senderId);
+        readThroughCache.evict(USER_CONVERSATIONS_CACHE, recipientId);
+    }
+
+    /**
+     * Drop what a read receipt changes: the conversation's pages and the reader's conversation list
+     */
+    public void evictConversationRead(String conversationId, String readerId) {
+        log.debug("Clearing chat cache for read conversation: {}", conversationId);
+        cacheNamespaces.invalidate(conversationId);
+        readThroughCache.evict(USER_CONVERSATIONS_CACHE, readerId);
+    }
+}
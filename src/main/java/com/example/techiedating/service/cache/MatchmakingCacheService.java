@@ -1,65 +1,112 @@
 package com.example.techiedating.service.cache;
 
 import com.example.techiedating.dto.MatchScoreDTO;
-import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.service.ranking.MatchRanking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Service for managing matchmaking-related caching operations.
+ * Match pages and scores live in per-user versioned namespaces (see {@link CacheNamespaces}),
+ * so a user's entries can be dropped without touching anyone else's.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MatchmakingCacheService {
 
+    private static final String MATCHES_CACHE = "matches";
+    private static final String MATCH_SCORE_CACHE = "matchScore";
+    private static final String RANKING_CACHE = "matchRanking";
+
+    private final ReadThroughCache readThroughCache;
+    private final CacheNamespaces cacheNamespaces;
+
     /**
-     * Get cached matches for a user
+     * Get a page of matches for a user, computing and caching it on a miss
      */
-    @Cacheable(value = "matches", key = "#username + '_' + #page + '_' + #size")
-    public List<MatchScoreDTO> getCachedMatches(String username, int page, int size) {
-        log.debug("Cache miss for matches: user={}, page={}, size={}", username, page, size);
-        return null; // Return null to indicate cache miss
+    public List<MatchScoreDTO> getMatches(String userId, int page, int size, Supplier<List<MatchScoreDTO>> loader) {
+        return readThroughCache.get(MATCHES_CACHE, matchesKey(userId, page, size), loader);
     }
 
     /**
-     * Cache match score calculation
+     * Cache a page of matches for a user
      */
-    @Cacheable(value = "matchScore", key = "#currentUser.user.id + '_' + #otherUser.user.id")
-    public MatchScoreDTO getCachedMatchScore(UserProfile currentUser, UserProfile otherUser) {
-        log.debug("Cache miss for match score: {} -> {}", 
-                currentUser.getUser().getId(), otherUser.getUser().getId());
-        return null; // Return null to indicate cache miss
+    public void putMatches(String userId, int page, int size, List<MatchScoreDTO> matches) {
+        readThroughCache.put(MATCHES_CACHE, matchesKey(userId, page, size), matches);
     }
 
     /**
-     * Clear cache for a specific user
+     * Get the match score of another user for the current user, computing and caching it on a miss
      */
-    @Caching(evict = {
-        @CacheEvict(value = "matches", key = "#username + '*'", allEntries = true),
-        @CacheEvict(value = "matchScore", key = "#username + '*'", allEntries = true)
-    })
-    public void clearUserCache(String username) {
-        log.info("Clearing match cache for user: {}", username);
+    public MatchScoreDTO getMatchScore(String currentUserId, String otherUserId, Supplier<MatchScoreDTO> loader) {
+        return readThroughCache.get(MATCH_SCORE_CACHE, matchScoreKey(currentUserId, otherUserId), loader);
+    }
+
+    /**
+     * Cache the match score of another user for the current user
+     */
+    public void putMatchScore(String currentUserId, String otherUserId, MatchScoreDTO score) {
+        readThroughCache.put(MATCH_SCORE_CACHE, matchScoreKey(currentUserId, otherUserId), score);
+    }
+
+    /**
+     * Get the cached match ranking for a user
+     * @return The ranking, or null if none is cached
+     */
+    public MatchRanking getCachedRanking(String userId) {
+        return readThroughCache.getIfPresent(RANKING_CACHE, userId, MatchRanking.class);
+    }
+
+    /**
+     * Cache a user's match ranking so later pages can be sliced from it
+     */
+    public void cacheRanking(String userId, MatchRanking ranking) {
+        readThroughCache.put(RANKING_CACHE, userId, ranking);
+    }
+
+    /**
+     * Drop a user's cached match ranking
+     */
+    public void evictRanking(String userId) {
+        readThroughCache.evict(RANKING_CACHE, userId);
+    }
+
+    /**
+     * Clear cache for a specific user: their ranking, match pages,
+     * and every cached score they are part of on either side
+     */
+    public void evictUser(String userId) {
+        log.debug("Clearing match cache for user: {}", userId);
+        evictRanking(userId);
+        cacheNamespaces.invalidate(userId);
     }
 
     /**
-     * Scheduled cache eviction (runs every hour)
+     * Drop every cached match result. Entries otherwise refresh ahead of their TTL on access,
+     * so this is not needed on a schedule.
      */
-    @Scheduled(fixedRate = 3_600_000) // 1 hour in milliseconds
     @Caching(evict = {
-        @CacheEvict(value = "matches", allEntries = true),
-        @CacheEvict(value = "matchScore", allEntries = true)
+        @CacheEvict(value = MATCHES_CACHE, allEntries = true),
+        @CacheEvict(value = MATCH_SCORE_CACHE, allEntries = true),
+        @CacheEvict(value = RANKING_CACHE, allEntries = true)
     })
     public void clearAllCaches() {
-        log.info("Scheduled cache eviction for all match caches");
+        log.info("Cleared all match caches");
+    }
+
+    private String matchesKey(String userId, int page, int size) {
+        return cacheNamespaces.key(userId, page + "_" + size);
+    }
+
+    // A score depends on both profiles, so it lives in both users' namespaces
+    private String matchScoreKey(String currentUserId, String otherUserId) {
+        return cacheNamespaces.key(currentUserId, cacheNamespaces.key(otherUserId, ""));
     }
 }
@@ -0,0 +1,241 @@
+package com.example.techiedating.service.cache;
+
+import com.example.techiedating.config.CacheSettings;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Programmatic read-through/write-through access to the application caches.
+ * <ul>
+ *   <li>Concurrent misses for the same key share a single load (single-flight).</li>
+ *   <li>Entries carry a jittered soft expiry before the cache's TTL; the first reader past it
+ *       starts a background reload while every reader keeps getting the current value (refresh-ahead),
+ *       so hot keys never expire all at once and no request waits for their reload.</li>
+ * </ul>
+ * Loader exceptions propagate unchanged, unlike {@link Cache#get(Object, java.util.concurrent.Callable)}.
+ */
+@Slf4j
+@Component
+public class ReadThroughCache {
+
+    static final double DEFAULT_REFRESH_AHEAD_RATIO = 0.8;
+
+    private static final int REFRESH_THREADS = 2;
+    // Refreshes beyond this are dropped; their entries stay due and the next reader retries
+    private static final int REFRESH_QUEUE_CAPACITY = 256;
+
+    private final CacheManager cacheManager;
+
+    // Fraction of the cache TTL after which entries are refreshed ahead of expiry
+    private final double refreshAheadRatio;
+
+    private final Executor refreshExecutor;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public ReadThroughCache(CacheManager cacheManager) {
+        this(cacheManager, DEFAULT_REFRESH_AHEAD_RATIO);
+    }
+
+    @Autowired
+    public ReadThroughCache(CacheManager cacheManager,
+                            @Value("${cache.refresh-ahead.ratio:0.8}") double refreshAheadRatio) {
+        this(cacheManager, refreshAheadRatio, new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS,
+                60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY), new RefreshThreadFactory()));
+    }
+
+    ReadThroughCache(CacheManager cacheManager, double refreshAheadRatio, Executor refreshExecutor) {
+        if (!(refreshAheadRatio > 0.0 && refreshAheadRatio <= 1.0)) {
+            throw new IllegalArgumentException("cache.refresh-ahead.ratio must be in (0, 1], got " + refreshAheadRatio);
+        }
+        this.cacheManager = cacheManager;
+        this.refreshAheadRatio = refreshAheadRatio;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Get a cached value, computing and caching it on a miss. Null results are not cached.
+     */
+    public <T> T get(String cacheName, String key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+
+        CachedValue cached = read(cache, key);
+        if (cached != null && cached.getValue() != null) {
+            if (cached.isDueForRefresh(System.currentTimeMillis()) && !isLoading(cacheName, key)) {
+                // Reload in the background; this and concurrent readers are served the current value meanwhile
+                refresh(cache, key, loader, cached.getValue());
+            }
+            return cast(cached.getValue());
+        }
+        return load(cache, key, loader);
+    }
+
+    /**
+     * @return The cached value, or null if there is none
+     */
+    public <T> T getIfPresent(String cacheName, String key, Class<T> type) {
+        Cache cache = cacheManager.getCache(cacheName);
+        CachedValue cached = cache != null ? read(cache, key) : null;
+        return cached != null && type.isInstance(cached.getValue()) ? type.cast(cached.getValue()) : null;
+    }
+
+    public void put(String cacheName, String key, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && value != null) {
+            write(cache, key, value);
+        }
+    }
+
+    public void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
+    /**
+     * Load a missing value, or wait for the load another thread already started for the same key
+     */
+    private <T> T load(Cache cache, String key, Supplier<T> loader) {
+        String flightKey = flightKey(cache.getName(), key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            log.debug("Waiting for in-flight load of {}: {}", cache.getName(), key);
+            return cast(await(existing));
+        }
+
+        try {
+            T value = loader.get();
+            if (value != null) {
+                write(cache, key, value);
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * Start reloading a value that is due for refresh on the refresh pool
+     */
+    private <T> void refresh(Cache cache, String key, Supplier<T> loader, Object current) {
+        String flightKey = flightKey(cache.getName(), key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(flightKey, flight) != null) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> reload(cache, key, loader, current, flightKey, flight));
+        } catch (RejectedExecutionException e) {
+            log.debug("Refresh pool is full, skipping refresh of {} entry {}", cache.getName(), key);
+            flight.complete(current);
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * Reload a value, keeping the current value if the reload fails
+     */
+    private <T> void reload(Cache cache, String key, Supplier<T> loader, Object current,
+                            String flightKey, CompletableFuture<Object> flight) {
+        try {
+            T value = loader.get();
+            if (value != null) {
+                write(cache, key, value);
+            }
+            flight.complete(value != null ? value : current);
+        } catch (RuntimeException e) {
+            log.warn("Refresh of {} entry {} failed, keeping current value: {}", cache.getName(), key, e.getMessage());
+            flight.complete(current);
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private static CachedValue read(Cache cache, String key) {
+        Cache.ValueWrapper wrapper = cache.get(key);
+        // Entries written before values were wrapped are treated as misses
+        return wrapper != null && wrapper.get() instanceof CachedValue cached ? cached : null;
+    }
+
+    private void write(Cache cache, String key, Object value) {
+        long ttlMs = CacheSettings.ttl(cache.getName()).toMillis();
+        double jitter = 1.0 + ThreadLocalRandom.current().nextDouble(-CacheSettings.TTL_JITTER, CacheSettings.TTL_JITTER);
+        long refreshAfter = System.currentTimeMillis() + (long) (ttlMs * refreshAheadRatio * jitter);
+        cache.put(key, new CachedValue(value, refreshAfter));
+    }
+
+    private boolean isLoading(String cacheName, String key) {
+        return inFlight.containsKey(flightKey(cacheName, key));
+    }
+
+    private static String flightKey(String cacheName, String key) {
+        return cacheName + "::" + key;
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private static final class RefreshThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "cache-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.techiedating.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * Service for caching profile search results that are expensive to recompute
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchCacheService {
+
+    private static final String SEARCH_CACHE = "search";
+    private static final String SEARCH_COUNT_CACHE = "searchCount";
+
+    private final ReadThroughCache readThroughCache;
+
+    /**
+     * Get the candidate IDs of a search, loading and caching them on a miss.
+     * Like counts, they aren't evicted when profiles change and can lag by the cache's TTL.
+     * @param searchKey Identifies the searching user, filters and order, but not the page
+     */
+    public SearchCandidates getCandidates(String searchKey, Supplier<SearchCandidates> loader) {
+        return readThroughCache.get(SEARCH_CACHE, searchKey, loader);
+    }
+
+    /**
+     * Get the number of profiles matching a set of filters, counting and caching it on a miss.
+     * Counts aren't evicted when profiles change, so they are estimates for the cache's TTL.
+     */
+    public long getCount(String filterFingerprint, Supplier<Long> loader) {
+        // Read back as Number: JSON-serialized small counts come back from Redis as Integer
+        Number count = readThroughCache.get(SEARCH_COUNT_CACHE, filterFingerprint, loader::get);
+        return count.longValue();
+    }
+}
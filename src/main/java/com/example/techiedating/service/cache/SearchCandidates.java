@@ -0,0 +1,21 @@
+package com.example.techiedating.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The leading profile IDs of a search in result order, cached so later pages of the same search
+ * only load and score their own profiles
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchCandidates {
+    private List<String> ids;
+
+    // True if these are all the matches, so their number is the exact total
+    private boolean complete;
+}
@@ -0,0 +1,40 @@
+package com.example.techiedating.service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Combines a local cache manager (L1) and a shared one (L2) into {@link TwoTierCache}s
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager localCacheManager;
+    private final CacheManager remoteCacheManager;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager localCacheManager, CacheManager remoteCacheManager) {
+        this.localCacheManager = localCacheManager;
+        this.remoteCacheManager = remoteCacheManager;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache remote = remoteCacheManager.getCache(cacheName);
+            if (remote == null) {
+                return null;
+            }
+            Cache local = localCacheManager.getCache(cacheName);
+            return local != null ? new TwoTierCache(local, remote) : remote;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.techiedating.service.chat;
+
+import com.example.techiedating.model.ChatMessage;
+import com.example.techiedating.model.TimeOrderedIdGenerator;
+import com.example.techiedating.repository.ChatMessageBatchWriter;
+import com.example.techiedating.service.cache.ChatCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind persistence for chat messages.
+ * Messages get their server-side ID and timestamp on submission, so they can be delivered right away,
+ * and are written by a single writer thread that drains a bounded queue into JDBC batches.
+ * When the queue stays full past the offer timeout, the message is rejected and counted as an overflow,
+ * so a burst can't tie up inbound threads with database writes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatIngestionPipeline {
+
+    /**
+     * When a submitted message is acknowledged to its sender
+     */
+    public enum Durability {
+        // As soon as it is queued; a crash can lose queued messages
+        ENQUEUED,
+        // Once its batch is committed
+        PERSISTED
+    }
+
+    private final ChatMessageBatchWriter chatMessageBatchWriter;
+    private final ChatCacheService chatCacheService;
+    private final ConversationSummaryService conversationSummaryService;
+    private final UnreadCounterService unreadCounterService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chat.ingestion.durability:PERSISTED}")
+    private Durability durability;
+
+    @Value("${chat.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${chat.ingestion.batch-size:200}")
+    private int batchSize;
+
+    // How long a submission waits for queue space before it is rejected
+    @Value("${chat.ingestion.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    // How long shutdown waits for the writer to drain the queue
+    @Value("${chat.ingestion.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<PendingMessage> queue;
+    // Submitted messages by ID until their batch has been written
+    private final Map<String, PendingMessage> pendingById = new ConcurrentHashMap<>();
+    private Thread writer;
+    private volatile boolean running;
+
+    private Counter persistedCounter;
+    private Counter failedCounter;
+    private Counter overflowCounter;
+    private Timer batchTimer;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        persistedCounter = meterRegistry.counter("chat.ingestion.persisted");
+        failedCounter = meterRegistry.counter("chat.ingestion.failed");
+        overflowCounter = meterRegistry.counter("chat.ingestion.overflow");
+        batchTimer = meterRegistry.timer("chat.ingestion.batch");
+        Gauge.builder("chat.ingestion.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        Gauge.builder("chat.ingestion.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::drain, "chat-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Chat ingestion started with queue capacity {}, batch size {}, acknowledged when {}",
+                queueCapacity, batchSize, durability);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(shutdownTimeoutMs);
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Chat ingestion stopped with {} unsaved messages", queue.size());
+        }
+    }
+
+    /**
+     * Assign the message its server-side fields and queue it for persistence
+     * @return A future completed with the message when it is acknowledged, according to the configured durability,
+     * or completed exceptionally if it could not be saved after being acknowledged for persistence.
+     * If the queue stays full, it is already completed exceptionally with a {@link RejectedExecutionException}.
+     */
+    public CompletableFuture<ChatMessage> submit(ChatMessage message) {
+        LocalDateTime now = LocalDateTime.now();
+        message.setId(TimeOrderedIdGenerator.nextId());
+        message.setConversationId(ChatMessage.generateConversationId(message.getSenderId(), message.getRecipientId()));
+        if (message.getMessageType() == null) {
+            message.setMessageType(ChatMessage.MessageType.TEXT);
+        }
+        message.setRead(false);
+        message.setCreatedAt(now);
+        message.setUpdatedAt(now);
+
+        PendingMessage pending = new PendingMessage(message);
+        pendingById.put(message.getId(), pending);
+        if (!enqueue(pending)) {
+            pendingById.remove(message.getId());
+            overflowCounter.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Chat ingestion queue is full"));
+        }
+        return durability == Durability.PERSISTED ? pending.persisted : CompletableFuture.completedFuture(message);
+    }
+
+    /**
+     * Run an action once a message is saved: right away if it isn't waiting to be written,
+     * otherwise on the writer thread after its batch. The action is dropped if the message can't be saved.
+     */
+    public void whenSaved(String messageId, Runnable action) {
+        PendingMessage pending = pendingById.get(messageId);
+        if (pending == null) {
+            action.run();
+            return;
+        }
+        pending.persisted.thenRun(action).exceptionally(failure -> {
+            // Save failures are already reported; only failures of the action itself are logged here
+            if (!pending.persisted.isCompletedExceptionally()) {
+                log.error("Failed to run an action after saving chat message {}", messageId, failure);
+            }
+            return null;
+        });
+    }
+
+    private boolean enqueue(PendingMessage pending) {
+        try {
+            return running && queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Write queued messages until stopped and the queue is empty.
+     * Each batch takes whatever has queued up, so batches grow with load without delaying quiet periods.
+     */
+    private void drain() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Chat writer failed on a batch of {} messages", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Insert the messages as one batch; if that fails, insert them one by one so a bad message
+     * can't take the rest of its batch down with it
+     */
+    private void write(List<PendingMessage> batch) {
+        List<PendingMessage> saved = new ArrayList<>(batch.size());
+        try {
+            batchTimer.record(() -> chatMessageBatchWriter.insertAll(
+                    batch.stream().map(pending -> pending.message).toList()));
+            saved.addAll(batch);
+        } catch (RuntimeException batchFailure) {
+            log.warn("Failed to insert a batch of {} chat messages, retrying one by one", batch.size(), batchFailure);
+            for (PendingMessage pending : batch) {
+                try {
+                    chatMessageBatchWriter.insertAll(List.of(pending.message));
+                    saved.add(pending);
+                } catch (RuntimeException e) {
+                    log.error("Failed to save chat message {}", pending.message.getId(), e);
+                    failedCounter.increment();
+                    pending.persisted.completeExceptionally(e);
+                }
+            }
+        }
+
+        if (!saved.isEmpty()) {
+            recordSaved(saved.stream().map(pending -> pending.message).toList());
+        }
+
+        // Drop each conversation's caches once, before acknowledging, so acknowledged messages are in its history
+        Map<String, ChatMessage> byConversation = new LinkedHashMap<>();
+        saved.forEach(pending -> byConversation.putIfAbsent(pending.message.getConversationId(), pending.message));
+        byConversation.values().forEach(message -> chatCacheService.evictConversation(
+                message.getConversationId(), message.getSenderId(), message.getRecipientId()));
+
+        persistedCounter.increment(saved.size());
+        saved.forEach(pending -> pending.persisted.complete(pending.message));
+        batch.forEach(pending -> pendingById.remove(pending.message.getId(), pending));
+    }
+
+    /**
+     * Update conversation summaries and unread counters; the messages stay saved if either fails.
+     * Messages their recipient's read watermark already covers are flagged read and not counted.
+     */
+    private void recordSaved(List<ChatMessage> messages) {
+        List<ChatMessage> unread = messages;
+        try {
+            unread = conversationSummaryService.recordMessages(messages);
+            if (unread.size() < messages.size()) {
+                markRead(messages, unread);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to update conversation summaries for {} chat messages", messages.size(), e);
+        }
+        try {
+            unreadCounterService.messagesReceived(unread);
+        } catch (RuntimeException e) {
+            log.error("Failed to update unread counters for {} chat messages", messages.size(), e);
+        }
+    }
+
+    private void markRead(List<ChatMessage> messages, List<ChatMessage> unread) {
+        Set<String> unreadIds = unread.stream().map(ChatMessage::getId).collect(Collectors.toSet());
+        List<ChatMessage> read = messages.stream()
+                .filter(message -> !unreadIds.contains(message.getId()))
+                .toList();
+        chatMessageBatchWriter.markRead(read.stream().map(ChatMessage::getId).toList());
+        read.forEach(message -> message.setRead(true));
+    }
+
+    private static final class PendingMessage {
+        private final ChatMessage message;
+        private final CompletableFuture<ChatMessage> persisted = new CompletableFuture<>();
+
+        private PendingMessage(ChatMessage message) {
+            this.message = message;
+        }
+    }
+}
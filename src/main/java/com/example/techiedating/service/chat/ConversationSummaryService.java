@@ -0,0 +1,131 @@
+package com.example.techiedating.service.chat;
+
+import com.example.techiedating.model.ChatMessage;
+import com.example.techiedating.model.ConversationSummary;
+import com.example.techiedating.repository.ConversationSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains each participant's conversation summary as messages are saved and read.
+ * Rows are created once per participant and then only changed by atomic update statements,
+ * so concurrent writers, including other instances, can't lose each other's changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConversationSummaryService {
+
+    // Orders messages the way the summary's last message is chosen: by timestamp, then by time-ordered ID
+    private static final Comparator<ChatMessage> SENT_ORDER = Comparator
+            .comparing(ChatMessage::getCreatedAt)
+            .thenComparing(ChatMessage::getId);
+
+    private final ConversationSummaryRepository conversationSummaryRepository;
+
+    @Value("${chat.inbox.max-conversations:100}")
+    private int maxInboxConversations;
+
+    /**
+     * A user's most recent conversations, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<ConversationSummary> getInbox(String userId) {
+        return conversationSummaryRepository.findInbox(userId, PageRequest.of(0, maxInboxConversations));
+    }
+
+    /**
+     * Record saved messages in both participants' summaries: the latest message of each conversation
+     * becomes its last message, and messages sent after the recipient's read watermark count as unread
+     * @return The messages counted as unread; the others were read by the watermark before they were saved
+     */
+    @Transactional
+    public List<ChatMessage> recordMessages(List<ChatMessage> messages) {
+        Map<ConversationSummary.Key, ChatMessage> latest = new LinkedHashMap<>();
+        Map<ConversationSummary.Key, List<ChatMessage>> received = new LinkedHashMap<>();
+        for (ChatMessage message : messages) {
+            ConversationSummary.Key senderKey = new ConversationSummary.Key(message.getConversationId(), message.getSenderId());
+            ConversationSummary.Key recipientKey = new ConversationSummary.Key(message.getConversationId(), message.getRecipientId());
+            latest.merge(senderKey, message, (a, b) -> SENT_ORDER.compare(a, b) >= 0 ? a : b);
+            latest.merge(recipientKey, message, (a, b) -> SENT_ORDER.compare(a, b) >= 0 ? a : b);
+            received.computeIfAbsent(recipientKey, key -> new ArrayList<>()).add(message);
+        }
+
+        createMissing(latest);
+        latest.forEach((key, message) -> conversationSummaryRepository.updateLastMessage(
+                key.getConversationId(), key.getUserId(), message.getId(), message.getSenderId(),
+                message.getContent(), message.getMessageType(), message.getCreatedAt()));
+        List<ChatMessage> unread = new ArrayList<>(messages.size());
+        received.forEach((key, keyMessages) -> unread.addAll(addUnread(key, keyMessages)));
+        return unread;
+    }
+
+    /**
+     * Count a recipient's messages as unread unless the watermark covers them. One update counts them all
+     * when the watermark precedes the earliest; otherwise it covers the earliest, and the rest are checked
+     * against it one by one.
+     */
+    private List<ChatMessage> addUnread(ConversationSummary.Key key, List<ChatMessage> messages) {
+        ChatMessage earliest = Collections.min(messages, SENT_ORDER);
+        if (conversationSummaryRepository.addUnread(key.getConversationId(), key.getUserId(),
+                messages.size(), earliest.getCreatedAt()) > 0) {
+            return messages;
+        }
+        List<ChatMessage> unread = new ArrayList<>();
+        for (ChatMessage message : messages) {
+            if (message != earliest && conversationSummaryRepository.addUnread(key.getConversationId(),
+                    key.getUserId(), 1, message.getCreatedAt()) > 0) {
+                unread.add(message);
+            }
+        }
+        return unread;
+    }
+
+    /**
+     * Count one message of the conversation as read by the user
+     */
+    @Transactional
+    public void markMessageRead(String conversationId, String userId) {
+        conversationSummaryRepository.decrementUnread(conversationId, userId);
+    }
+
+    /**
+     * Count every message of the conversation the user received up to the given time as read
+     */
+    @Transactional
+    public void markConversationRead(String conversationId, String userId, LocalDateTime readAt) {
+        conversationSummaryRepository.markRead(conversationId, userId, readAt);
+    }
+
+    /**
+     * Create the summaries that don't exist yet in the caller's transaction.
+     * The insert skips rows created concurrently, so losing a race to create one isn't an error.
+     */
+    private void createMissing(Map<ConversationSummary.Key, ChatMessage> latest) {
+        Set<ConversationSummary.Key> existing = new HashSet<>();
+        conversationSummaryRepository.findAllById(latest.keySet()).forEach(summary ->
+                existing.add(new ConversationSummary.Key(summary.getConversationId(), summary.getUserId())));
+
+        latest.forEach((key, message) -> {
+            if (existing.contains(key)) {
+                return;
+            }
+            String otherUserId = key.getUserId().equals(message.getSenderId())
+                    ? message.getRecipientId()
+                    : message.getSenderId();
+            conversationSummaryRepository.insertIfAbsent(key.getConversationId(), key.getUserId(), otherUserId);
+        });
+    }
+}
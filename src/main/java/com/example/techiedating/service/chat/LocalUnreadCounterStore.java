@@ -0,0 +1,83 @@
+package com.example.techiedating.service.chat;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Unread counters held in process, for single-instance deployments without Redis
+ */
+public class LocalUnreadCounterStore implements UnreadCounterStore {
+
+    // Versions are kept per stripe of users, so they stay bounded; users sharing a stripe only cost a recount
+    private static final int VERSION_STRIPES = 1024;
+
+    private final Cache<String, Long> counters;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public LocalUnreadCounterStore(Duration reconcileInterval, long maxUsers) {
+        long ttlNanos = reconcileInterval.toNanos();
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                // Expire a fixed time after loading; counting up or down doesn't extend it
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String userId, Long count, long currentTime) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String userId, Long count, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String userId, Long count, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Long get(String userId) {
+        return counters.getIfPresent(userId);
+    }
+
+    @Override
+    public long version(String userId) {
+        return versions.get(stripe(userId));
+    }
+
+    @Override
+    public boolean setIfUnchanged(String userId, long count, long version) {
+        boolean[] loaded = new boolean[1];
+        counters.asMap().compute(userId, (id, current) -> {
+            if (current != null || versions.get(stripe(id)) != version) {
+                return current;
+            }
+            loaded[0] = true;
+            return count;
+        });
+        return loaded[0];
+    }
+
+    @Override
+    public Long add(String userId, long delta) {
+        // The version is bumped under the counter's lock, so a concurrent load either sees it or precedes it
+        return counters.asMap().compute(userId, (id, count) -> {
+            if (count == null) {
+                versions.incrementAndGet(stripe(id));
+                return null;
+            }
+            return Math.max(0, count + delta);
+        });
+    }
+
+    private static int stripe(String userId) {
+        return Math.floorMod(userId.hashCode(), VERSION_STRIPES);
+    }
+}
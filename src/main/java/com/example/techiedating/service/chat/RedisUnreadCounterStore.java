@@ -0,0 +1,72 @@
+package com.example.techiedating.service.chat;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Unread counters in Redis, shared by every instance and changed with atomic increments
+ */
+public class RedisUnreadCounterStore implements UnreadCounterStore {
+
+    private static final String KEY_PREFIX = "unread:";
+    private static final String VERSION_KEY_PREFIX = "unread:version:";
+
+    // Increment only a loaded counter, keeping its expiry, and clamp it at zero; otherwise bump its version
+    private static final RedisScript<Long> ADD_IF_LOADED = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then " +
+            "redis.call('INCR', KEYS[2]) redis.call('PEXPIRE', KEYS[2], ARGV[2]) return nil end " +
+            "local count = redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+            "if count < 0 then redis.call('SET', KEYS[1], 0, 'KEEPTTL') return 0 end " +
+            "return count",
+            Long.class);
+
+    // Load a counter unless it is loaded already or its version moved on
+    private static final RedisScript<Long> SET_IF_UNCHANGED = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[2] then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3]) " +
+            "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration reconcileInterval;
+
+    public RedisUnreadCounterStore(StringRedisTemplate redisTemplate, Duration reconcileInterval) {
+        this.redisTemplate = redisTemplate;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    @Override
+    public Long get(String userId) {
+        String count = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+        return count != null ? Long.valueOf(count) : null;
+    }
+
+    @Override
+    public long version(String userId) {
+        String version = redisTemplate.opsForValue().get(VERSION_KEY_PREFIX + userId);
+        return version != null ? Long.parseLong(version) : 0;
+    }
+
+    @Override
+    public boolean setIfUnchanged(String userId, long count, long version) {
+        Long loaded = redisTemplate.execute(SET_IF_UNCHANGED, keys(userId),
+                Long.toString(count), Long.toString(version), Long.toString(reconcileInterval.toMillis()));
+        return loaded != null && loaded == 1;
+    }
+
+    @Override
+    public Long add(String userId, long delta) {
+        // Versions expire with the counters they guard, so an idle user's version doesn't stay behind
+        return redisTemplate.execute(ADD_IF_LOADED, keys(userId),
+                Long.toString(delta), Long.toString(reconcileInterval.toMillis()));
+    }
+
+    private static List<String> keys(String userId) {
+        return List.of(KEY_PREFIX + userId, VERSION_KEY_PREFIX + userId);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.techiedating.service.chat;
+
+import com.example.techiedating.dto.UnreadCountDTO;
+import com.example.techiedating.model.ChatMessage;
+import com.example.techiedating.repository.ChatMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps each user's unread message count in the counter store instead of counting it per request.
+ * Counters change as messages are saved and read, and every change to a loaded counter is pushed to the user.
+ * A counter that isn't loaded, or whose store is unavailable, is counted in the database when it is next read.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterService {
+
+    private static final String UNREAD = "/queue/unread";
+
+    private final UnreadCounterStore unreadCounterStore;
+    private final ChatMessageRepository chatMessageRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * Get a user's number of unread messages
+     */
+    public long getUnreadCount(String userId) {
+        Long count = stored(() -> unreadCounterStore.get(userId));
+        return count != null ? count : reconcile(userId);
+    }
+
+    /**
+     * Count saved messages as unread for their recipients
+     */
+    public void messagesReceived(List<ChatMessage> messages) {
+        Map<String, Long> received = new LinkedHashMap<>();
+        messages.forEach(message -> received.merge(message.getRecipientId(), 1L, Long::sum));
+        received.forEach(this::change);
+    }
+
+    /**
+     * Count messages as read by the user
+     */
+    public void messagesRead(String userId, long count) {
+        if (count > 0) {
+            change(userId, -count);
+        }
+    }
+
+    /**
+     * Change a loaded counter and push its new count. A counter that isn't loaded is left for the next read
+     * to recount, so saving a batch for cold recipients doesn't count each of them in the database.
+     */
+    private void change(String userId, long delta) {
+        Long count = stored(() -> unreadCounterStore.add(userId, delta));
+        if (count != null) {
+            push(userId, count);
+        }
+    }
+
+    /**
+     * Load the user's counter with their count from the database.
+     * A change that missed the counter while counting leaves it unloaded, so the next read recounts.
+     */
+    private long reconcile(String userId) {
+        Long version = stored(() -> unreadCounterStore.version(userId));
+        long count = chatMessageRepository.countByRecipientIdAndIsReadFalse(userId);
+        if (version != null) {
+            stored(() -> unreadCounterStore.setIfUnchanged(userId, count, version) ? count : null);
+        }
+        return count;
+    }
+
+    private void push(String userId, long count) {
+        messagingTemplate.convertAndSendToUser(userId, UNREAD, new UnreadCountDTO(count));
+    }
+
+    private Long stored(Supplier<Long> operation) {
+        try {
+            return operation.get();
+        } catch (DataAccessException e) {
+            log.warn("Unread counter store unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+}
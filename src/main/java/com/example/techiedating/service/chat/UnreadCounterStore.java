@@ -0,0 +1,32 @@
+package com.example.techiedating.service.chat;
+
+/**
+ * Per-user unread message counters. A counter is loaded with a count from the database and then
+ * changed atomically; it expires after the reconcile interval, so the next read recounts it.
+ * Changes made while a counter isn't loaded bump its version, so a count taken before them isn't loaded.
+ */
+public interface UnreadCounterStore {
+
+    /**
+     * @return The user's count, or null if their counter isn't loaded
+     */
+    Long get(String userId);
+
+    /**
+     * @return The version of the user's counter; read it before counting in the database
+     */
+    long version(String userId);
+
+    /**
+     * Load the user's counter with a count from the database, unless it is already loaded
+     * or it changed since the given version was read
+     * @return true if the counter was loaded with the count
+     */
+    boolean setIfUnchanged(String userId, long count, long version);
+
+    /**
+     * Add to the user's counter if it is loaded, never going below zero; otherwise bump its version
+     * @return The new count, or null if the counter isn't loaded
+     */
+    Long add(String userId, long delta);
+}
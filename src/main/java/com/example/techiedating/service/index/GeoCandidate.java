@@ -0,0 +1,12 @@
+package com.example.techiedating.service.index;
+
+import lombok.Value;
+
+/**
+ * A user found by the geospatial index together with their distance from the search center.
+ */
+@Value
+public class GeoCandidate {
+    String userId;
+    double distanceKm;
+}
@@ -0,0 +1,234 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.repository.UserProfileRepository;
+import com.example.techiedating.service.distance.DistanceCalculationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory geospatial index over profile coordinates.
+ * Profiles are bucketed into a fixed latitude/longitude grid and searched ring by ring
+ * around the center cell, so only nearby cells are visited for a radius or nearest-N query.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeoGridIndex {
+
+    private static final double KM_PER_DEGREE_LAT = 110.574;
+    private static final double KM_PER_DEGREE_LON_AT_EQUATOR = 111.320;
+
+    private static final Comparator<GeoCandidate> FARTHEST_FIRST =
+            Comparator.comparingDouble(GeoCandidate::getDistanceKm).reversed();
+
+    private final UserProfileRepository userProfileRepository;
+    private final DistanceCalculationService distanceCalculationService;
+
+    private final Map<String, Location> locations = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> cells = new ConcurrentHashMap<>();
+
+    @Value("${matchmaking.geo-index.cell-degrees:0.5}")
+    private double cellDegrees;
+
+    /**
+     * Load every located profile once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (Object[] row : userProfileRepository.findAllLocations()) {
+            update((String) row[0], (Double) row[1], (Double) row[2]);
+        }
+        log.info("Geo index loaded for {} profiles", locations.size());
+    }
+
+    /**
+     * Record a profile's current coordinates; null coordinates remove it from the index.
+     * The cell move happens inside the user's location entry, so concurrent updates for the same user
+     * are applied one at a time and can't leave them in a stale cell.
+     */
+    public void update(String userId, Double latitude, Double longitude) {
+        locations.compute(userId, (id, previous) -> {
+            Location current = latitude != null && longitude != null
+                    ? new Location(latitude, longitude, cellKey(rowOf(latitude), colOf(longitude)))
+                    : null;
+            if (previous != null && (current == null || previous.cell != current.cell)) {
+                removeFromCell(previous.cell, id);
+            }
+            if (current != null) {
+                addToCell(current.cell, id);
+            }
+            return current;
+        });
+    }
+
+    /**
+     * Find indexed users closest to a point, expanding ring by ring until enough are found.
+     * Only the closest {@code limit} users seen so far are kept, and the search stops once the covered
+     * radius reaches the farthest of them, since no later ring can hold anyone closer.
+     * @param latitude Latitude of the search center
+     * @param longitude Longitude of the search center
+     * @param maxDistanceKm Optional radius; users further away are never returned
+     * @param limit Maximum number of users to return
+     * @param excludeUserId Optional user to leave out (usually the caller)
+     * @return Candidates ordered by ascending distance
+     */
+    public List<GeoCandidate> findNearest(double latitude, double longitude, Double maxDistanceKm,
+                                          int limit, String excludeUserId) {
+        int rows = rowCount();
+        int cols = colCount();
+        int centerRow = rowOf(latitude);
+        int centerCol = colOf(longitude);
+        int maxRing = Math.max(rows, cols / 2 + 1);
+        int indexed = locations.size();
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        PriorityQueue<GeoCandidate> nearest = new PriorityQueue<>(Math.min(limit, indexed) + 1, FARTHEST_FIRST);
+        int seen = 0;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int dr = -ring; dr <= ring; dr++) {
+                int row = centerRow + dr;
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+                if (Math.abs(dr) == ring) {
+                    // Top and bottom edge of the ring: every column
+                    int count = Math.min(2 * ring + 1, cols);
+                    for (int i = 0; i < count; i++) {
+                        seen += collect(row, centerCol - ring + i, latitude, longitude, maxDistanceKm, excludeUserId,
+                                nearest, limit);
+                    }
+                } else if (2 * ring - 1 < cols) {
+                    // Left and right sides; skipped once earlier rings already wrapped the whole row
+                    seen += collect(row, centerCol - ring, latitude, longitude, maxDistanceKm, excludeUserId,
+                            nearest, limit);
+                    if (2 * ring != cols) {
+                        seen += collect(row, centerCol + ring, latitude, longitude, maxDistanceKm, excludeUserId,
+                                nearest, limit);
+                    }
+                }
+            }
+
+            if (seen >= indexed) {
+                break;
+            }
+            double coveredKm = coveredRadiusKm(latitude, ring, centerRow, rows, cols);
+            if (maxDistanceKm != null && coveredKm >= maxDistanceKm) {
+                break;
+            }
+            if (nearest.size() >= limit && coveredKm >= nearest.peek().getDistanceKm()) {
+                break;
+            }
+        }
+
+        List<GeoCandidate> found = new ArrayList<>(nearest);
+        found.sort(Comparator.comparingDouble(GeoCandidate::getDistanceKm));
+        return found;
+    }
+
+    private int collect(int row, int col, double latitude, double longitude, Double maxDistanceKm,
+                        String excludeUserId, PriorityQueue<GeoCandidate> nearest, int limit) {
+        Set<String> members = cells.get(cellKey(row, Math.floorMod(col, colCount())));
+        if (members == null) {
+            return 0;
+        }
+        int seen = 0;
+        for (String userId : members) {
+            seen++;
+            Location location = locations.get(userId);
+            if (location == null || userId.equals(excludeUserId)) {
+                continue;
+            }
+            double distance = distanceCalculationService.calculateDistance(
+                    latitude, longitude, location.latitude, location.longitude);
+            if (maxDistanceKm != null && distance > maxDistanceKm) {
+                continue;
+            }
+            if (nearest.size() < limit) {
+                nearest.add(new GeoCandidate(userId, distance));
+            } else if (distance < nearest.peek().getDistanceKm()) {
+                nearest.poll();
+                nearest.add(new GeoCandidate(userId, distance));
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * Radius around the center that is guaranteed to be fully covered after visiting the given ring
+     */
+    private double coveredRadiusKm(double latitude, int ring, int centerRow, int rows, int cols) {
+        if (centerRow - ring <= 0 && centerRow + ring >= rows - 1 && 2 * ring + 1 >= cols) {
+            return Double.MAX_VALUE;
+        }
+        double degrees = ring * cellDegrees;
+        double latKm = degrees * KM_PER_DEGREE_LAT;
+        if (2 * ring + 1 >= cols) {
+            return latKm;
+        }
+        double widestLat = Math.min(90.0, Math.abs(latitude) + degrees);
+        double lonKm = degrees * KM_PER_DEGREE_LON_AT_EQUATOR * Math.cos(Math.toRadians(widestLat));
+        return Math.min(latKm, lonKm);
+    }
+
+    private void addToCell(long cell, String userId) {
+        cells.compute(cell, (k, members) -> {
+            Set<String> updated = members != null ? members : ConcurrentHashMap.newKeySet();
+            updated.add(userId);
+            return updated;
+        });
+    }
+
+    private void removeFromCell(long cell, String userId) {
+        cells.computeIfPresent(cell, (k, members) -> {
+            members.remove(userId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private int rowCount() {
+        return (int) Math.ceil(180.0 / cellDegrees);
+    }
+
+    private int colCount() {
+        return (int) Math.ceil(360.0 / cellDegrees);
+    }
+
+    private int rowOf(double latitude) {
+        return Math.min((int) Math.floor((latitude + 90.0) / cellDegrees), rowCount() - 1);
+    }
+
+    private int colOf(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellDegrees), colCount());
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static final class Location {
+        private final double latitude;
+        private final double longitude;
+        private final long cell;
+
+        private Location(double latitude, double longitude, long cell) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = cell;
+        }
+    }
+}
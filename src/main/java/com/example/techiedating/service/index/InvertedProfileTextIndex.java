@@ -0,0 +1,200 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.UserProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-process inverted index from text tokens to profiles.
+ * A query visits only the posting lists of its own tokens (and of tokens they prefix), so its cost grows with
+ * the number of matches rather than the number of profiles. Every query token must match;
+ * matches are ranked by inverse document frequency, with display name hits weighted above bio and interests.
+ * Kept current by profile writes on this instance, and rebuilt from the database periodically, so changes
+ * made on other instances are picked up within the rebuild interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.text.strategy", havingValue = "index", matchIfMissing = true)
+public class InvertedProfileTextIndex implements ProfileTextSearch {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final float DISPLAY_NAME_WEIGHT = 2.0f;
+    private static final float TEXT_WEIGHT = 1.0f;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private final UserProfileRepository userProfileRepository;
+
+    // token -> (profile ID -> field weight); a rebuild swaps in new maps, so searches never see a partial index
+    private volatile NavigableMap<String, Map<String, Float>> postings = new ConcurrentSkipListMap<>();
+    private volatile Map<String, Map<String, Float>> tokensByProfile = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * Index every profile once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+        log.info("Text index loaded for {} profiles, {} tokens", tokensByProfile.size(), postings.size());
+    }
+
+    /**
+     * Re-index every profile from the database, replacing what local writes left behind.
+     * Profiles created or changed on other instances only reach this index here.
+     */
+    @Scheduled(fixedDelayString = "${search.text.index.rebuild-interval-ms:300000}",
+            initialDelayString = "${search.text.index.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        Map<String, List<String>> interests = new HashMap<>();
+        for (Object[] row : userProfileRepository.findAllInterests()) {
+            interests.computeIfAbsent((String) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+        List<Object[]> profiles = userProfileRepository.findAllSearchText();
+
+        NavigableMap<String, Map<String, Float>> rebuiltPostings = new ConcurrentSkipListMap<>();
+        Map<String, Map<String, Float>> rebuiltTokens = new ConcurrentHashMap<>();
+        for (Object[] row : profiles) {
+            String profileId = (String) row[0];
+            index(rebuiltPostings, rebuiltTokens, profileId, (String) row[1], (String) row[2],
+                    interests.getOrDefault(profileId, List.of()));
+        }
+        synchronized (this) {
+            postings = rebuiltPostings;
+            tokensByProfile = rebuiltTokens;
+            loaded = true;
+        }
+    }
+
+    /**
+     * @return true once the index holds every profile; until then searches would miss profiles
+     */
+    @Override
+    public boolean isReady() {
+        return loaded;
+    }
+
+    @Override
+    public synchronized void update(UserProfile profile) {
+        index(postings, tokensByProfile, profile.getId(), profile.getDisplayName(), profile.getBio(),
+                profile.getInterests());
+    }
+
+    @Override
+    public List<String> search(String query, int limit) {
+        NavigableMap<String, Map<String, Float>> postings = this.postings;
+        List<String> queryTokens = new ArrayList<>(tokenize(query));
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int profileCount = Math.max(tokensByProfile.size(), 1);
+        Map<String, Double> scores = null;
+        for (String queryToken : queryTokens) {
+            Map<String, Double> tokenScores = scoreToken(postings, queryToken, profileCount);
+            scores = scores == null ? tokenScores : intersect(scores, tokenScores);
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Score every profile matching one query token, exactly or as a prefix of an indexed token
+     */
+    private static Map<String, Double> scoreToken(NavigableMap<String, Map<String, Float>> postings,
+                                                  String queryToken, int profileCount) {
+        Map<String, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Map<String, Float>> posting : postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).entrySet()) {
+            Map<String, Float> profiles = posting.getValue();
+            double idf = Math.log(1.0 + (double) profileCount / Math.max(profiles.size(), 1));
+            double factor = posting.getKey().equals(queryToken) ? 1.0 : PREFIX_MATCH_FACTOR;
+            profiles.forEach((profileId, weight) -> scores.merge(profileId, weight * idf * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private static Map<String, Double> intersect(Map<String, Double> scores, Map<String, Double> tokenScores) {
+        Map<String, Double> smaller = scores.size() <= tokenScores.size() ? scores : tokenScores;
+        Map<String, Double> larger = smaller == scores ? tokenScores : scores;
+        Map<String, Double> result = new HashMap<>();
+        smaller.forEach((profileId, score) -> {
+            Double other = larger.get(profileId);
+            if (other != null) {
+                result.put(profileId, score + other);
+            }
+        });
+        return result;
+    }
+
+    // Writes to the live maps are serialized so adding to a posting list can't race with dropping it once empty;
+    // searches read without locking
+    private static void index(NavigableMap<String, Map<String, Float>> postings,
+                              Map<String, Map<String, Float>> tokensByProfile,
+                              String profileId, String displayName, String bio, Collection<String> interests) {
+        Map<String, Float> tokens = new HashMap<>();
+        tokenize(bio).forEach(token -> tokens.put(token, TEXT_WEIGHT));
+        if (interests != null) {
+            interests.forEach(interest -> tokenize(interest).forEach(token -> tokens.put(token, TEXT_WEIGHT)));
+        }
+        tokenize(displayName).forEach(token -> tokens.put(token, DISPLAY_NAME_WEIGHT));
+
+        Map<String, Float> previous = tokens.isEmpty() ? tokensByProfile.remove(profileId) : tokensByProfile.put(profileId, tokens);
+        if (previous != null) {
+            previous.keySet().stream()
+                    .filter(token -> !tokens.containsKey(token))
+                    .forEach(token -> removePosting(postings, token, profileId));
+        }
+        tokens.forEach((token, weight) -> postings
+                .computeIfAbsent(token, k -> new ConcurrentHashMap<>())
+                .put(profileId, weight));
+    }
+
+    private static void removePosting(NavigableMap<String, Map<String, Float>> postings,
+                                      String token, String profileId) {
+        Map<String, Float> profiles = postings.get(token);
+        if (profiles != null) {
+            profiles.remove(profileId);
+            if (profiles.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.repository.UserProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * PostgreSQL full-text search over display name and bio, backed by a GIN expression index
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.text.strategy", havingValue = "postgres")
+public class PostgresProfileTextSearch implements ProfileTextSearch {
+
+    // Must match the expression in UserProfileRepository.searchTextRanked for the index to be used
+    private static final String CREATE_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_profile_text_search ON profile " +
+            "USING GIN (to_tsvector('simple', coalesce(display_name, '') || ' ' || coalesce(bio, '')))";
+
+    private final UserProfileRepository userProfileRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create the GIN index if it doesn't exist yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndex() {
+        try {
+            jdbcTemplate.execute(CREATE_INDEX_SQL);
+        } catch (Exception e) {
+            log.warn("Failed to create profile text search index: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public List<String> search(String query, int limit) {
+        return userProfileRepository.searchTextRanked(query, limit);
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.model.Gender;
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.UserProfileRepository;
+import com.example.techiedating.repository.UserSkillRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index over the low-cardinality profile attributes used as search filters:
+ * gender, years of experience, skills and interests. Each profile gets a dense ordinal, and each attribute value
+ * maps to a compressed bitmap of the ordinals that have it, so a combination of filters is a few bitmap
+ * intersections instead of a query. Kept current by profile and skill writes on this instance, and rebuilt
+ * from the database periodically, so changes made on other instances are picked up within the rebuild interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProfileAttributeIndex {
+
+    // Experience at or above this many years shares one bitmap
+    static final int MAX_EXPERIENCE_YEARS = 50;
+
+    private final UserProfileRepository userProfileRepository;
+    private final UserSkillRepository userSkillRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ordinals are never reused or reassigned, so selections taken before a rebuild still resolve
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Gender, RoaringBitmap> byGender = new EnumMap<>(Gender.class);
+    private final RoaringBitmap[] byExperience = new RoaringBitmap[MAX_EXPERIENCE_YEARS + 1];
+    private final Map<Integer, RoaringBitmap> bySkill = new HashMap<>();
+    private final Map<String, RoaringBitmap> byInterest = new HashMap<>();
+
+    // Attribute values per ordinal, to clear a profile's old bits on update
+    private final Map<Integer, ProfileAttributes> attributes = new HashMap<>();
+
+    private volatile boolean loaded;
+
+    @Value("${search.attribute-index.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Index every profile and skill once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Re-index every profile and skill from the database, replacing what local writes left behind.
+     * Profiles created or changed on other instances only reach this index here.
+     */
+    @Scheduled(fixedDelayString = "${search.attribute-index.rebuild-interval-ms:300000}",
+            initialDelayString = "${search.attribute-index.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Set<String>> interests = new HashMap<>();
+        for (Object[] row : userProfileRepository.findAllInterests()) {
+            interests.computeIfAbsent((String) row[0], k -> new HashSet<>()).add((String) row[1]);
+        }
+        List<Object[]> profiles = userProfileRepository.findAllFilterAttributes();
+        List<Object[]> skills = userSkillRepository.findAllSkillLevels();
+
+        lock.writeLock().lock();
+        try {
+            attributes.clear();
+            all.clear();
+            byGender.clear();
+            Arrays.fill(byExperience, null);
+            bySkill.clear();
+            byInterest.clear();
+            for (Object[] row : profiles) {
+                String profileId = (String) row[0];
+                index(profileId, (Gender) row[1], (Integer) row[2], interests.getOrDefault(profileId, Set.of()));
+            }
+            for (Object[] row : skills) {
+                Integer ordinal = ordinals.get((String) row[0]);
+                if (ordinal != null) {
+                    bitmap(bySkill, (Integer) row[1]).add(ordinal);
+                }
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Attribute index loaded for {} profiles, {} skills, {} interests",
+                profiles.size(), bySkill.size(), byInterest.size());
+    }
+
+    /**
+     * @return true once the index holds every profile and can answer filters
+     */
+    public boolean isReady() {
+        return loaded;
+    }
+
+    /**
+     * Re-index a profile's gender, experience and interests after it was saved
+     */
+    public void update(UserProfile profile) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            index(profile.getId(), profile.getGender(), profile.getExperienceYrs(), profile.getInterests());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addSkill(String profileId, Integer skillId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            bitmap(bySkill, skillId).add(ordinal(profileId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeSkill(String profileId, Integer skillId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(profileId);
+            RoaringBitmap skill = bySkill.get(skillId);
+            if (ordinal != null && skill != null) {
+                skill.remove(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Select the profiles matching every given filter; null or empty filters don't restrict
+     * @param gender Gender name, case-insensitive
+     * @param skillIds Profiles must have at least one of these skills
+     * @param interests Profiles must have at least one of these interests, case-insensitive
+     * @return The selection, or null if the index isn't ready or no filter was given.
+     *         Experience bounds above {@link #MAX_EXPERIENCE_YEARS} may select a few profiles too many.
+     * @throws IllegalArgumentException if the gender is unknown
+     */
+    public ProfileSelection select(String gender, Integer minExperience, Integer maxExperience,
+                                   Collection<Integer> skillIds, Collection<String> interests) {
+        boolean hasGender = gender != null && !gender.isEmpty();
+        boolean hasSkills = skillIds != null && !skillIds.isEmpty();
+        boolean hasInterests = interests != null && !interests.isEmpty();
+        if (!loaded || (!hasGender && minExperience == null && maxExperience == null && !hasSkills && !hasInterests)) {
+            return null;
+        }
+        Gender genderValue = hasGender ? Gender.valueOf(gender.toUpperCase(Locale.ROOT)) : null;
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap selected = all.clone();
+            if (genderValue != null) {
+                selected.and(byGender.getOrDefault(genderValue, new RoaringBitmap()));
+            }
+            if (minExperience != null || maxExperience != null) {
+                selected.and(experienceRange(minExperience, maxExperience));
+            }
+            if (hasSkills) {
+                selected.and(union(skillIds.stream().map(bySkill::get).toList()));
+            }
+            if (hasInterests) {
+                selected.and(union(interests.stream()
+                        .map(interest -> byInterest.get(normalize(interest)))
+                        .toList()));
+            }
+            return new ProfileSelection(selected, this::lookupOrdinal, this::lookupId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Experience at or above the cap shares one bitmap, so bounds beyond it select that whole bitmap:
+     * a superset the search query re-checks
+     */
+    private RoaringBitmap experienceRange(Integer minExperience, Integer maxExperience) {
+        int from = Math.min(Math.max(minExperience != null ? minExperience : 0, 0), MAX_EXPERIENCE_YEARS);
+        int to = Math.min(maxExperience != null ? maxExperience : MAX_EXPERIENCE_YEARS, MAX_EXPERIENCE_YEARS);
+        List<RoaringBitmap> years = new ArrayList<>();
+        for (int year = from; year <= to; year++) {
+            years.add(byExperience[year]);
+        }
+        return union(years);
+    }
+
+    private static RoaringBitmap union(List<RoaringBitmap> bitmaps) {
+        RoaringBitmap[] present = bitmaps.stream()
+                .filter(bitmap -> bitmap != null)
+                .toArray(RoaringBitmap[]::new);
+        return present.length == 0 ? new RoaringBitmap() : FastAggregation.or(present);
+    }
+
+    private void index(String profileId, Gender gender, Integer experienceYrs, Collection<String> interests) {
+        int ordinal = ordinal(profileId);
+        clear(ordinal);
+
+        Set<String> normalized = new HashSet<>();
+        if (interests != null) {
+            interests.forEach(interest -> normalized.add(normalize(interest)));
+        }
+        ProfileAttributes current = new ProfileAttributes(gender, experienceYrs, normalized);
+        attributes.put(ordinal, current);
+
+        if (gender != null) {
+            byGender.computeIfAbsent(gender, k -> new RoaringBitmap()).add(ordinal);
+        }
+        if (experienceYrs != null && experienceYrs >= 0) {
+            int year = Math.min(experienceYrs, MAX_EXPERIENCE_YEARS);
+            if (byExperience[year] == null) {
+                byExperience[year] = new RoaringBitmap();
+            }
+            byExperience[year].add(ordinal);
+        }
+        normalized.forEach(interest -> bitmap(byInterest, interest).add(ordinal));
+        all.add(ordinal);
+    }
+
+    /**
+     * Drop a profile from every gender, experience and interest bitmap
+     */
+    private void clear(int ordinal) {
+        ProfileAttributes previous = attributes.remove(ordinal);
+        if (previous == null) {
+            return;
+        }
+        if (previous.gender != null) {
+            byGender.get(previous.gender).remove(ordinal);
+        }
+        if (previous.experienceYrs != null && previous.experienceYrs >= 0) {
+            byExperience[Math.min(previous.experienceYrs, MAX_EXPERIENCE_YEARS)].remove(ordinal);
+        }
+        previous.interests.forEach(interest -> {
+            RoaringBitmap bitmap = byInterest.get(interest);
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                byInterest.remove(interest);
+            }
+        });
+    }
+
+    private int ordinal(String profileId) {
+        return ordinals.computeIfAbsent(profileId, id -> {
+            ids.add(id);
+            return ids.size() - 1;
+        });
+    }
+
+    private int lookupOrdinal(String profileId) {
+        lock.readLock().lock();
+        try {
+            return ordinals.getOrDefault(profileId, -1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String lookupId(int ordinal) {
+        lock.readLock().lock();
+        try {
+            return ids.get(ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <K> RoaringBitmap bitmap(Map<K, RoaringBitmap> bitmaps, K key) {
+        return bitmaps.computeIfAbsent(key, k -> new RoaringBitmap());
+    }
+
+    static String normalize(String interest) {
+        return interest.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class ProfileAttributes {
+        private final Gender gender;
+        private final Integer experienceYrs;
+        private final Set<String> interests;
+
+        private ProfileAttributes(Gender gender, Integer experienceYrs, Set<String> interests) {
+            this.gender = gender;
+            this.experienceYrs = experienceYrs;
+            this.interests = interests;
+        }
+    }
+}
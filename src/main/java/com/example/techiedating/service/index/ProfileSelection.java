@@ -0,0 +1,47 @@
+package com.example.techiedating.service.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * The profiles selected by a set of attribute filters, as a bitmap of profile ordinals.
+ * A snapshot: later index updates don't change it.
+ */
+public class ProfileSelection {
+
+    private final RoaringBitmap ordinals;
+    private final ToIntFunction<String> ordinalOf;
+    private final IntFunction<String> idOf;
+
+    ProfileSelection(RoaringBitmap ordinals, ToIntFunction<String> ordinalOf, IntFunction<String> idOf) {
+        this.ordinals = ordinals;
+        this.ordinalOf = ordinalOf;
+        this.idOf = idOf;
+    }
+
+    public boolean contains(String profileId) {
+        int ordinal = ordinalOf.applyAsInt(profileId);
+        return ordinal >= 0 && ordinals.contains(ordinal);
+    }
+
+    public int size() {
+        return ordinals.getCardinality();
+    }
+
+    public boolean isEmpty() {
+        return ordinals.isEmpty();
+    }
+
+    /**
+     * @return The selected profile IDs, in ordinal order
+     */
+    public List<String> ids() {
+        List<String> ids = new ArrayList<>(ordinals.getCardinality());
+        ordinals.forEach((int ordinal) -> ids.add(idOf.apply(ordinal)));
+        return ids;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.model.UserProfile;
+
+import java.util.List;
+
+/**
+ * Relevance-ranked text search over profile display names and bios; the in-process index also matches interests.
+ * The implementation is selected with {@code search.text.strategy}: {@code index} (in-process inverted index,
+ * the default), {@code postgres} (tsvector/GIN), or {@code like} (no bean; the search query falls back to LIKE).
+ */
+public interface ProfileTextSearch {
+
+    /**
+     * @return IDs of profiles matching the query, most relevant first
+     */
+    List<String> search(String query, int limit);
+
+    /**
+     * @return true once searches reflect every profile; until then callers fall back to LIKE
+     */
+    default boolean isReady() {
+        return true;
+    }
+
+    /**
+     * Re-index a profile after its text changed
+     */
+    default void update(UserProfile profile) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.techiedating.service.index;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable, primitive representation of a user's skills.
+ * Skill IDs are kept sorted so two vectors can be compared with a merge-join
+ * without boxing or allocating.
+ */
+public final class SkillVector {
+
+    public static final SkillVector EMPTY = new SkillVector(new int[0], new byte[0]);
+
+    private final int[] skillIds;
+    private final byte[] levels;
+    private final int sumOfSquares;
+
+    private SkillVector(int[] skillIds, byte[] levels) {
+        this.skillIds = skillIds;
+        this.levels = levels;
+        int sum = 0;
+        for (byte level : levels) {
+            sum += level * level;
+        }
+        this.sumOfSquares = sum;
+    }
+
+    /**
+     * Build a vector from a map of skill IDs to levels
+     */
+    public static SkillVector of(Map<Integer, Integer> skillLevels) {
+        if (skillLevels == null || skillLevels.isEmpty()) {
+            return EMPTY;
+        }
+        int[] ids = new int[skillLevels.size()];
+        int i = 0;
+        for (Integer skillId : skillLevels.keySet()) {
+            ids[i++] = skillId;
+        }
+        Arrays.sort(ids);
+
+        byte[] levels = new byte[ids.length];
+        for (int j = 0; j < ids.length; j++) {
+            levels[j] = toLevel(skillLevels.get(ids[j]));
+        }
+        return new SkillVector(ids, levels);
+    }
+
+    public int size() {
+        return skillIds.length;
+    }
+
+    public boolean isEmpty() {
+        return skillIds.length == 0;
+    }
+
+    public int skillIdAt(int index) {
+        return skillIds[index];
+    }
+
+    /**
+     * Sum of squared levels, i.e. the maximum points this vector can score against another
+     */
+    public int sumOfSquares() {
+        return sumOfSquares;
+    }
+
+    public boolean contains(int skillId) {
+        return Arrays.binarySearch(skillIds, skillId) >= 0;
+    }
+
+    /**
+     * Sum of level products over the skills both vectors share (merge-join, no allocation)
+     */
+    public int dot(SkillVector other) {
+        int[] a = skillIds;
+        int[] b = other.skillIds;
+        int i = 0;
+        int j = 0;
+        int sum = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                sum += levels[i] * other.levels[j];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return sum;
+    }
+
+    private static byte toLevel(Integer level) {
+        // Levels are on a 1-5 scale; clamp so a bad row can't overflow the byte
+        return level == null ? 0 : (byte) Math.max(0, Math.min(level, Byte.MAX_VALUE));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.repository.UserSkillRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resident index of every user's skills as primitive {@link SkillVector}s.
+ * {@code UserSkillService} evicts a user's vector once their skill change commits;
+ * users not indexed yet, or evicted, are loaded on demand.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SkillVectorIndex {
+
+    private final UserSkillRepository userSkillRepository;
+
+    private final Map<String, SkillVector> vectors = new ConcurrentHashMap<>();
+
+    // Bumped by every eviction, so a load that raced one knows its rows may predate the change
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Value("${matchmaking.skill-index.preload:true}")
+    private boolean preload;
+
+    /**
+     * Load every user's skills once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!preload) {
+            return;
+        }
+        long seen = evictions.get();
+        Map<String, Map<Integer, Integer>> skillsByUser = groupByUser(userSkillRepository.findAllSkillLevels());
+        skillsByUser.forEach((userId, levels) -> install(userId, SkillVector.of(levels), seen));
+        log.info("Skill index loaded for {} users", skillsByUser.size());
+    }
+
+    /**
+     * Get the skill vector for a user, loading it if it is not indexed yet
+     */
+    public SkillVector get(String userId) {
+        SkillVector vector = vectors.get(userId);
+        if (vector != null) {
+            return vector;
+        }
+        return getAll(List.of(userId)).get(userId);
+    }
+
+    /**
+     * Get skill vectors for several users, loading any missing ones in a single query
+     * @return Map of user ID to skill vector; users without skills map to {@link SkillVector#EMPTY}
+     */
+    public Map<String, SkillVector> getAll(Collection<String> userIds) {
+        Map<String, SkillVector> result = new HashMap<>(userIds.size() * 2);
+        List<String> missing = new ArrayList<>();
+        for (String userId : userIds) {
+            SkillVector vector = vectors.get(userId);
+            if (vector != null) {
+                result.put(userId, vector);
+            } else {
+                missing.add(userId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long seen = evictions.get();
+            Map<String, Map<Integer, Integer>> loaded = groupByUser(userSkillRepository.findSkillLevelsByUserIds(missing));
+            for (String userId : missing) {
+                SkillVector vector = SkillVector.of(loaded.get(userId));
+                SkillVector installed = install(userId, vector, seen);
+                result.put(userId, installed != null ? installed : vector);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop a user's vector so it is reloaded on next access.
+     * Call once the change has committed, so the reload reads it.
+     */
+    public void evict(String userId) {
+        // Bump before removing: a load that installs after the removal then sees the bump and backs off
+        evictions.incrementAndGet();
+        vectors.remove(userId);
+    }
+
+    /**
+     * Index a loaded vector unless the user is already indexed, or an eviction happened since the load started,
+     * in which case the loaded rows may be older than the change that caused it
+     * @return The indexed vector, or null if the loaded one was not indexed
+     */
+    private SkillVector install(String userId, SkillVector loaded, long seen) {
+        return vectors.compute(userId, (k, current) -> {
+            if (current != null) {
+                return current;
+            }
+            return evictions.get() == seen ? loaded : null;
+        });
+    }
+
+    private Map<String, Map<Integer, Integer>> groupByUser(List<Object[]> rows) {
+        Map<String, Map<Integer, Integer>> skillsByUser = new HashMap<>();
+        for (Object[] row : rows) {
+            skillsByUser.computeIfAbsent((String) row[0], k -> new HashMap<>())
+                    .putIfAbsent((Integer) row[1], (Integer) row[2]);
+        }
+        return skillsByUser;
+    }
+}
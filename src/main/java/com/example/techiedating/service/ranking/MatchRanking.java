@@ -0,0 +1,38 @@
+package com.example.techiedating.service.ranking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The top-K candidates for a user, ordered by descending score.
+ * Cached per user so later pages are served as slices of the same ranking.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchRanking {
+    private List<RankedMatch> matches;
+    private int limit;
+
+    /**
+     * @return true if this ranking is deep enough to serve results up to the given position
+     */
+    public boolean covers(int endExclusive) {
+        // A ranking smaller than its limit already holds every candidate that was scanned
+        return endExclusive <= limit || matches.size() < limit;
+    }
+
+    /**
+     * @return the entries for one page, or an empty list past the end of the ranking
+     */
+    public List<RankedMatch> slice(int offset, int size) {
+        if (offset >= matches.size()) {
+            return Collections.emptyList();
+        }
+        return matches.subList(offset, Math.min(offset + size, matches.size()));
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.techiedating.service.ranking;
+
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.UserProfileRepository;
+import com.example.techiedating.service.index.GeoCandidate;
+import com.example.techiedating.service.index.GeoGridIndex;
+import com.example.techiedating.service.index.SkillVector;
+import com.example.techiedating.service.index.SkillVectorIndex;
+import com.example.techiedating.service.scoring.MatchScoringService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Streams candidates in fixed-size chunks, scores them and keeps only the top-K
+ * in a bounded min-heap, so ranking a user costs the same memory regardless of user base size.
+ * Unfiltered rankings scan a capped number of candidates (see {@code matchmaking.ranking.max-candidates}),
+ * so they are a deliberate approximation of the top-K over every profile.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchRankingEngine {
+
+    // Worst match first: lowest score, then highest user ID so ties prefer lower IDs
+    private static final Comparator<RankedMatch> WORST_FIRST = Comparator
+            .comparingDouble(RankedMatch::getScore)
+            .thenComparing(RankedMatch::getUserId, Comparator.reverseOrder());
+
+    private final UserProfileRepository userProfileRepository;
+    private final SkillVectorIndex skillVectorIndex;
+    private final GeoGridIndex geoGridIndex;
+    private final MatchScoringService matchScoringService;
+    private final ParallelScoringExecutor parallelScoringExecutor;
+
+    @Value("${matchmaking.ranking.top-k:200}")
+    private int topK;
+
+    @Value("${matchmaking.ranking.chunk-size:200}")
+    private int chunkSize;
+
+    // Cap on candidates scored per unfiltered ranking: the nearest located profiles (or the first by ID
+    // when the user has no location), plus as many profiles without a location. A deliberate approximation
+    // that bounds ranking cost: distance weighs into the score, so the nearest candidates are the likeliest
+    // to rank, but a distant, much better skill match beyond the cap is missed. Filtered rankings are exact.
+    @Value("${matchmaking.ranking.max-candidates:10000}")
+    private int maxCandidates;
+
+    /**
+     * Rank candidates for a user, scanning at most max-candidates of them (twice that for located users,
+     * whose nearest candidates are followed by those without a location)
+     * @param currentProfile The profile of the user to rank candidates for
+     * @param currentSkills The user's skill vector
+     * @param minLimit Minimum ranking depth required by the caller; the configured top-K is used if larger
+     * @return The best candidates ordered by descending score
+     */
+    public MatchRanking rank(UserProfile currentProfile, SkillVector currentSkills, int minLimit) {
+        int limit = Math.max(topK, minLimit);
+        PriorityQueue<RankedMatch> heap = new PriorityQueue<>(Math.min(limit, maxCandidates) + 1, WORST_FIRST);
+
+        int scanned = currentProfile.getLatitude() != null && currentProfile.getLongitude() != null
+                ? scanNearest(currentProfile, currentSkills, heap, limit)
+                : scanById(currentProfile, currentSkills, heap, limit);
+
+        List<RankedMatch> matches = new ArrayList<>(heap);
+        matches.sort(WORST_FIRST.reversed());
+        log.debug("Ranked {} candidates for user {}, kept {}", scanned, currentProfile.getId(), matches.size());
+        return new MatchRanking(matches, limit);
+    }
+
+    /**
+     * Rank exactly the given candidates for a user, keeping all of them
+     * @param candidateIds The candidates that qualify, e.g. after a search's filters; the user is skipped
+     * @return Every candidate ordered by descending score
+     */
+    public MatchRanking rankCandidates(UserProfile currentProfile, SkillVector currentSkills,
+                                      Collection<String> candidateIds) {
+        List<String> ids = candidateIds.stream()
+                .filter(id -> !id.equals(currentProfile.getId()))
+                .collect(Collectors.toList());
+        int limit = Math.max(ids.size(), 1);
+        PriorityQueue<RankedMatch> heap = new PriorityQueue<>(limit + 1, WORST_FIRST);
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            scoreChunk(currentProfile, currentSkills, userProfileRepository.findScoringAttributesByIds(chunk), heap, limit);
+        }
+
+        List<RankedMatch> matches = new ArrayList<>(heap);
+        matches.sort(WORST_FIRST.reversed());
+        log.debug("Ranked {} filtered candidates for user {}", matches.size(), currentProfile.getId());
+        return new MatchRanking(matches, limit);
+    }
+
+    /**
+     * Scan the nearest candidates from the geospatial index, chunk by chunk, then the candidates without
+     * a location, which the index doesn't hold; those are scored without a distance, like any missing one
+     */
+    private int scanNearest(UserProfile currentProfile, SkillVector currentSkills,
+                            PriorityQueue<RankedMatch> heap, int limit) {
+        List<GeoCandidate> nearest = geoGridIndex.findNearest(
+                currentProfile.getLatitude(),
+                currentProfile.getLongitude(),
+                null,
+                maxCandidates,
+                currentProfile.getId()
+        );
+
+        for (int from = 0; from < nearest.size(); from += chunkSize) {
+            List<String> ids = nearest.subList(from, Math.min(from + chunkSize, nearest.size())).stream()
+                    .map(GeoCandidate::getUserId)
+                    .collect(Collectors.toList());
+            scoreChunk(currentProfile, currentSkills, userProfileRepository.findScoringAttributesByIds(ids), heap, limit);
+        }
+        return nearest.size() + scanInIdOrder(currentProfile, currentSkills, heap, limit,
+                (afterId, page) -> userProfileRepository.findUnlocatedScoringAttributesAfter(
+                        currentProfile.getId(), afterId, page));
+    }
+
+    /**
+     * Scan all other profiles in ID order
+     */
+    private int scanById(UserProfile currentProfile, SkillVector currentSkills,
+                         PriorityQueue<RankedMatch> heap, int limit) {
+        return scanInIdOrder(currentProfile, currentSkills, heap, limit,
+                (afterId, page) -> userProfileRepository.findScoringAttributesAfter(
+                        currentProfile.getId(), afterId, page));
+    }
+
+    /**
+     * Score up to max-candidates rows from a keyset-paginated query, in ID order
+     * @param query Loads the chunk of scoring rows after the given profile ID
+     */
+    private int scanInIdOrder(UserProfile currentProfile, SkillVector currentSkills,
+                              PriorityQueue<RankedMatch> heap, int limit,
+                              BiFunction<String, Pageable, List<Object[]>> query) {
+        int scanned = 0;
+        String afterId = "";
+        while (scanned < maxCandidates) {
+            int requested = Math.min(chunkSize, maxCandidates - scanned);
+            List<Object[]> rows = query.apply(afterId, PageRequest.of(0, requested));
+            if (rows.isEmpty()) {
+                break;
+            }
+            scoreChunk(currentProfile, currentSkills, rows, heap, limit);
+            scanned += rows.size();
+            afterId = (String) rows.get(rows.size() - 1)[0];
+            if (rows.size() < requested) {
+                break;
+            }
+        }
+        return scanned;
+    }
+
+    /**
+     * Score one chunk of candidate rows (id, latitude, longitude, experienceYrs) into the heap.
+     * All candidate data is preloaded first, so scoring itself can fan out across the scoring pool.
+     */
+    private void scoreChunk(UserProfile currentProfile, SkillVector currentSkills, List<Object[]> rows,
+                            PriorityQueue<RankedMatch> heap, int limit) {
+        List<UserProfile> candidates = new ArrayList<>(rows.size());
+        List<String> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            candidates.add(UserProfile.builder()
+                    .id((String) row[0])
+                    .latitude((Double) row[1])
+                    .longitude((Double) row[2])
+                    .experienceYrs((Integer) row[3])
+                    .build());
+            ids.add((String) row[0]);
+        }
+        Map<String, SkillVector> candidateSkills = skillVectorIndex.getAll(ids);
+
+        if (!parallelScoringExecutor.shouldParallelize(candidates.size())) {
+            scoreRange(currentProfile, currentSkills, candidates, candidateSkills, 0, candidates.size(), heap, limit);
+            return;
+        }
+
+        int partitions = parallelScoringExecutor.getParallelism();
+        int partitionSize = (candidates.size() + partitions - 1) / partitions;
+        List<Callable<PriorityQueue<RankedMatch>>> tasks = new ArrayList<>(partitions);
+        for (int from = 0; from < candidates.size(); from += partitionSize) {
+            int start = from;
+            int end = Math.min(from + partitionSize, candidates.size());
+            tasks.add(() -> {
+                PriorityQueue<RankedMatch> partial = new PriorityQueue<>(Math.min(limit, end - start) + 1, WORST_FIRST);
+                scoreRange(currentProfile, currentSkills, candidates, candidateSkills, start, end, partial, limit);
+                return partial;
+            });
+        }
+
+        for (PriorityQueue<RankedMatch> partial : parallelScoringExecutor.invokeAll(tasks)) {
+            partial.forEach(match -> offer(heap, match, limit));
+        }
+    }
+
+    private void scoreRange(UserProfile currentProfile, SkillVector currentSkills, List<UserProfile> candidates,
+                            Map<String, SkillVector> candidateSkills, int from, int to,
+                            PriorityQueue<RankedMatch> heap, int limit) {
+        for (int i = from; i < to; i++) {
+            UserProfile candidate = candidates.get(i);
+            double score = matchScoringService.calculateMatchScore(
+                    currentProfile,
+                    candidate,
+                    currentSkills,
+                    candidateSkills.getOrDefault(candidate.getId(), SkillVector.EMPTY)
+            );
+            offer(heap, new RankedMatch(candidate.getId(), score), limit);
+        }
+    }
+
+    private static void offer(PriorityQueue<RankedMatch> heap, RankedMatch match, int limit) {
+        if (heap.size() < limit) {
+            heap.add(match);
+        } else if (WORST_FIRST.compare(match, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(match);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.techiedating.service.ranking;
+
+import com.example.techiedating.model.MatchRecommendation;
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.MatchRecommendationRepository;
+import com.example.techiedating.repository.UserProfileRepository;
+import com.example.techiedating.service.cache.MatchmakingCacheService;
+import com.example.techiedating.service.index.SkillVectorIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Background pipeline that precomputes each active user's top-N candidates into the
+ * match_recommendations table, so the suggestions endpoint only has to read and paginate.
+ * Runs as a nightly batch plus a short-interval refresh for users whose profile or skills changed.
+ * <p>
+ * Staleness bounds: a changed user's own ranking is recomputed at the next refresh.
+ * Stored rankings that include the changed user are recomputed after it, at most
+ * {@code dependent-refresh-limit} per refresh, the rest at later refreshes.
+ * A user who isn't in someone's stored ranking, such as a new user, only enters it at the nightly batch,
+ * so a ranking can miss a better candidate for up to a day.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchRecommendationService {
+
+    private final MatchRankingEngine matchRankingEngine;
+    private final MatchRecommendationRepository matchRecommendationRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final SkillVectorIndex skillVectorIndex;
+    private final MatchmakingCacheService cacheService;
+
+    // Users whose profile or skills changed since the last refresh
+    private final Set<String> pendingRefresh = ConcurrentHashMap.newKeySet();
+
+    // Users whose stored ranking includes a changed user
+    private final Set<String> pendingDependents = ConcurrentHashMap.newKeySet();
+
+    @Value("${matchmaking.recommendations.enabled:true}")
+    private boolean enabled;
+
+    @Value("${matchmaking.recommendations.batch-size:500}")
+    private int batchSize;
+
+    // Most rankings recomputed per refresh because a user in them changed
+    @Value("${matchmaking.recommendations.dependent-refresh-limit:200}")
+    private int dependentRefreshLimit;
+
+    /**
+     * Get the precomputed ranking for a user
+     */
+    public Optional<MatchRanking> findRanking(String userId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return matchRecommendationRepository.findWithCandidates(userId)
+                .map(recommendation -> new MatchRanking(
+                        recommendation.getCandidates().stream()
+                                .map(candidate -> new RankedMatch(candidate.getCandidateId(), candidate.getScore()))
+                                .collect(Collectors.toList()),
+                        recommendation.getRankingLimit()));
+    }
+
+    /**
+     * Drop a user's cached matches and queue their recommendations for recomputation
+     * after their profile or skills changed
+     */
+    public void markStale(String userId) {
+        cacheService.evictUser(userId);
+        if (enabled) {
+            pendingRefresh.add(userId);
+        }
+    }
+
+    /**
+     * Recompute recommendations for users whose data changed since the last run,
+     * then for a bounded number of users whose stored ranking includes one of them
+     */
+    @Scheduled(fixedDelayString = "${matchmaking.recommendations.refresh-interval-ms:30000}")
+    public void refreshPending() {
+        if (!enabled || (pendingRefresh.isEmpty() && pendingDependents.isEmpty())) {
+            return;
+        }
+        List<String> changed = new ArrayList<>(pendingRefresh);
+        pendingRefresh.removeAll(changed);
+        for (String userId : changed) {
+            recompute(userId);
+            // Their score in other users' rankings was computed from their old data
+            pendingDependents.addAll(matchRecommendationRepository.findUserIdsRanking(userId));
+        }
+        pendingDependents.removeAll(changed);
+
+        List<String> dependents = pendingDependents.stream()
+                .limit(dependentRefreshLimit)
+                .collect(Collectors.toList());
+        pendingDependents.removeAll(dependents);
+        dependents.forEach(this::recompute);
+        log.info("Refreshed match recommendations for {} changed and {} dependent users, {} dependents pending",
+                changed.size(), dependents.size(), pendingDependents.size());
+    }
+
+    /**
+     * Recompute recommendations for every active user
+     */
+    @Scheduled(cron = "${matchmaking.recommendations.cron:0 0 3 * * *}")
+    public void recomputeAll() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Starting nightly match recommendation batch");
+        int processed = 0;
+        String afterId = "";
+        while (true) {
+            List<String> userIds = userProfileRepository.findActiveProfileIdsAfter(afterId, PageRequest.of(0, batchSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            userIds.forEach(this::recompute);
+            processed += userIds.size();
+            afterId = userIds.get(userIds.size() - 1);
+        }
+        log.info("Finished nightly match recommendation batch for {} users", processed);
+    }
+
+    /**
+     * Recompute and store a single user's recommendations
+     */
+    public void recompute(String userId) {
+        try {
+            Optional<UserProfile> profile = userProfileRepository.findById(userId);
+            if (profile.isEmpty()) {
+                matchRecommendationRepository.deleteById(userId);
+                return;
+            }
+
+            MatchRanking ranking = matchRankingEngine.rank(profile.get(), skillVectorIndex.get(userId), 0);
+            matchRecommendationRepository.save(MatchRecommendation.builder()
+                    .userId(userId)
+                    .candidates(ranking.getMatches().stream()
+                            .map(match -> new MatchRecommendation.Candidate(match.getUserId(), match.getScore()))
+                            .collect(Collectors.toList()))
+                    .rankingLimit(ranking.getLimit())
+                    .computedAt(Instant.now())
+                    .build());
+            cacheService.evictUser(userId);
+        } catch (Exception e) {
+            log.warn("Failed to compute match recommendations for user {}: {}", userId, e.getMessage());
+        }
+    }
+}
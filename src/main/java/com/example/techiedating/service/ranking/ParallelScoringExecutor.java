@@ -0,0 +1,135 @@
+package com.example.techiedating.service.ranking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated, bounded thread pool for parallel candidate scoring.
+ * Kept separate from the common ForkJoin pool so scoring can't starve unrelated work.
+ * When the queue is full, work is rejected back to the calling thread and counted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParallelScoringExecutor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${matchmaking.scoring.parallel.enabled:false}")
+    private boolean enabled;
+
+    // 0 means one thread per available core
+    @Value("${matchmaking.scoring.parallel.threads:0}")
+    private int threads;
+
+    @Value("${matchmaking.scoring.parallel.queue-capacity:256}")
+    private int queueCapacity;
+
+    // Chunks smaller than this are scored on the calling thread
+    @Value("${matchmaking.scoring.parallel.min-candidates:128}")
+    private int minCandidates;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        rejectedCounter = meterRegistry.counter("matchmaking.scoring.rejected");
+
+        executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ScoringThreadFactory(),
+                (task, pool) -> {
+                    rejectedCounter.increment();
+                    if (!pool.isShutdown()) {
+                        task.run();
+                    }
+                });
+
+        Gauge.builder("matchmaking.scoring.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("matchmaking.scoring.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        log.info("Parallel match scoring enabled with {} threads", poolSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return true if a batch of the given size should be scored in parallel
+     */
+    public boolean shouldParallelize(int candidateCount) {
+        return executor != null && candidateCount >= minCandidates;
+    }
+
+    public int getParallelism() {
+        return executor != null ? executor.getMaximumPoolSize() : 1;
+    }
+
+    /**
+     * Run all tasks on the scoring pool and wait for their results, in task order
+     */
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scoring candidates", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Candidate scoring failed", e.getCause());
+        }
+        return results;
+    }
+
+    private static final class ScoringThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "match-scoring-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.techiedating.service.ranking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A candidate's position in a user's match ranking.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedMatch {
+    private String userId;
+    private double score;
+}
@@ -2,6 +2,7 @@ package com.example.techiedating.service.scoring;
 
 import com.example.techiedating.model.UserProfile;
 import com.example.techiedating.model.UserSkill;
+import com.example.techiedating.service.index.SkillVector;
 import com.example.techiedating.service.distance.DistanceCalculationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +10,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Default implementation of MatchScoringService.
@@ -39,6 +39,24 @@ public class DefaultMatchScoringService implements MatchScoringService {
         // 1. Calculate skill compatibility
         double skillScore = calculateSkillScore(currentUserSkills, otherUserSkills);
         
+        return combineScores(currentUser, otherUser, skillScore);
+    }
+
+    @Override
+    public double calculateMatchScore(
+            UserProfile currentUser,
+            UserProfile otherUser,
+            SkillVector currentUserSkills,
+            SkillVector otherUserSkills) {
+        
+        double skillScore = calculateSkillScore(currentUserSkills, otherUserSkills);
+        return combineScores(currentUser, otherUser, skillScore);
+    }
+
+    /**
+     * Combine the skill score with distance and experience scores into the weighted total
+     */
+    private double combineScores(UserProfile currentUser, UserProfile otherUser, double skillScore) {
         // 2. Calculate distance score
         double distance = distanceCalculationService.calculateDistance(
                 currentUser.getLatitude(), currentUser.getLongitude(),
@@ -57,8 +75,10 @@ public class DefaultMatchScoringService implements MatchScoringService {
                           (distanceScore * DISTANCE_WEIGHT) +
                           (expScore * EXPERIENCE_WEIGHT);
         
-        log.debug("Match score - Skills: {}, Distance: {}, Exp: {}, Total: {}", 
-                skillScore, distanceScore, expScore, totalScore);
+        if (log.isDebugEnabled()) {
+            log.debug("Match score - Skills: {}, Distance: {}, Exp: {}, Total: {}", 
+                    skillScore, distanceScore, expScore, totalScore);
+        }
         
         return Math.min(Math.max(totalScore, 0.0), 1.0); // Ensure score is between 0.0 and 1.0
     }
@@ -94,6 +114,15 @@ public class DefaultMatchScoringService implements MatchScoringService {
         return Math.min(matchingPoints / totalPossible, 1.0);
     }
 
+    @Override
+    public double calculateSkillScore(SkillVector currentUserSkills, SkillVector otherUserSkills) {
+        int totalPossible = currentUserSkills.sumOfSquares();
+        if (totalPossible == 0 || otherUserSkills.isEmpty()) {
+            return 0.0;
+        }
+        return Math.min((double) currentUserSkills.dot(otherUserSkills) / totalPossible, 1.0);
+    }
+
     @Override
     public double calculateExperienceScore(Integer exp1, Integer exp2) {
         if (exp1 == null || exp2 == null) {
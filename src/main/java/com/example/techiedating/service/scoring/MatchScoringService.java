@@ -2,10 +2,10 @@ package com.example.techiedating.service.scoring;
 
 import com.example.techiedating.model.UserProfile;
 import com.example.techiedating.model.UserSkill;
+import com.example.techiedating.service.index.SkillVector;
 
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Service for calculating match scores between user profiles.
@@ -27,6 +27,21 @@ public interface MatchScoringService {
             List<UserSkill> otherUserSkills
     );
     
+    /**
+     * Calculate match score between two user profiles using indexed skill vectors
+     * @param currentUser The current user's profile
+     * @param otherUser The other user's profile to compare with
+     * @param currentUserSkills Skill vector of the current user
+     * @param otherUserSkills Skill vector of the other user
+     * @return Match score between 0.0 and 1.0 (higher is better match)
+     */
+    double calculateMatchScore(
+            UserProfile currentUser,
+            UserProfile otherUser,
+            SkillVector currentUserSkills,
+            SkillVector otherUserSkills
+    );
+    
     /**
      * Calculate skill compatibility score between two sets of skills
      * @param currentUserSkills Skills of the current user with their levels
@@ -38,6 +53,14 @@ public interface MatchScoringService {
             List<UserSkill> otherUserSkills
     );
     
+    /**
+     * Calculate skill compatibility score between two skill vectors without allocating
+     * @param currentUserSkills Skill vector of the current user
+     * @param otherUserSkills Skill vector of the other user
+     * @return Score between 0.0 and 1.0
+     */
+    double calculateSkillScore(SkillVector currentUserSkills, SkillVector otherUserSkills);
+    
     /**
      * Calculate experience compatibility score
      * @param exp1 Experience in years of first user
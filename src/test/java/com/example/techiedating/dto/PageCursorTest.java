@@ -0,0 +1,41 @@
+package com.example.techiedating.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void decode_ShouldRestoreEncodedCursor() {
+        PageCursor cursor = PageCursor.decode(new PageCursor("displayName", true, "Ada, \"Lovelace\"", "u-42").encode());
+
+        assertEquals("displayName", cursor.getSortKey());
+        assertTrue(cursor.isDescending());
+        assertEquals("Ada, \"Lovelace\"", cursor.getLastValue());
+        assertEquals("u-42", cursor.getLastId());
+    }
+
+    @Test
+    void decode_ShouldKeepEmptySortValue() {
+        PageCursor cursor = PageCursor.decode(new PageCursor("displayName", false, "", "u-1").encode());
+
+        assertEquals("", cursor.getLastValue());
+        assertFalse(cursor.isDescending());
+    }
+
+    @Test
+    void decode_ShouldRejectMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("Zm9v"));
+    }
+
+    @Test
+    void requireSortKey_ShouldRejectCursorOfAnotherOrder() {
+        PageCursor cursor = new PageCursor("experienceYrs", true, "5", "u-1");
+
+        cursor.requireSortKey("experienceYrs", true);
+        assertThrows(IllegalArgumentException.class, () -> cursor.requireSortKey("experienceYrs", false));
+        assertThrows(IllegalArgumentException.class, () -> cursor.requireSortKey("score", true));
+    }
+}
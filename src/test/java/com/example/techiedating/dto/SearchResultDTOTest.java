@@ -0,0 +1,36 @@
+package com.example.techiedating.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultDTOTest {
+
+    @Test
+    void fromSlice_ShouldDerivePagesFromTheTotal() {
+        SearchResultDTO<String> result = SearchResultDTO.fromSlice(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(1, 2), true), "next", 5L, CountStrategy.ESTIMATED);
+
+        assertEquals(5L, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        assertEquals(1, result.getPage());
+        assertEquals(CountStrategy.ESTIMATED, result.getCountStrategy());
+        assertEquals("next", result.getNextCursor());
+        assertFalse(result.isLast());
+    }
+
+    @Test
+    void fromSlice_ShouldLeaveTotalsEmptyWhenNotCounted() {
+        SearchResultDTO<String> result = SearchResultDTO.fromSlice(
+                new SliceImpl<>(List.of("a"), PageRequest.of(0, 2), false), null, null, CountStrategy.NONE);
+
+        assertNull(result.getTotalElements());
+        assertNull(result.getTotalPages());
+        assertEquals(CountStrategy.NONE, result.getCountStrategy());
+        assertTrue(result.isLast());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.techiedating.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void nextId_ShouldBeVersion7AndStartWithTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UUID.fromString(TimeOrderedIdGenerator.nextId());
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(id.getMostSignificantBits() >>> 16 >= before);
+    }
+
+    @Test
+    void nextId_ShouldIncreaseEvenWithinTheSameMillisecond() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(TimeOrderedIdGenerator.nextId());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i).compareTo(ids.get(i - 1)) > 0, "IDs must sort in creation order");
+        }
+    }
+
+    @Test
+    void chatMessageId_ShouldBeGeneratedThroughTheIdGeneratorType() throws Exception {
+        TimeOrderedId annotation = ChatMessage.class.getDeclaredField("id").getAnnotation(TimeOrderedId.class);
+
+        assertNotNull(annotation);
+        assertEquals(TimeOrderedIdGenerator.class,
+                TimeOrderedId.class.getAnnotation(IdGeneratorType.class).value());
+        // The constructor Hibernate instantiates the generator with
+        assertNotNull(TimeOrderedIdGenerator.class.getConstructor(
+                TimeOrderedId.class, Member.class, CustomIdGeneratorCreationContext.class));
+    }
+}
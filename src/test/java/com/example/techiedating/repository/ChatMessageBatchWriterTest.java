@@ -0,0 +1,43 @@
+package com.example.techiedating.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageBatchWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ChatMessageBatchWriter chatMessageBatchWriter;
+
+    @Test
+    void markRead_ShouldFlagTheMessagesInChunksOfBoundParameters() {
+        List<String> ids = IntStream.range(0, 501).mapToObj(i -> "m" + i).toList();
+
+        chatMessageBatchWriter.markRead(ids);
+
+        verify(jdbcTemplate).update("UPDATE chat_messages SET is_read = TRUE WHERE id IN ("
+                + String.join(", ", Collections.nCopies(500, "?")) + ")", ids.subList(0, 500).toArray());
+        verify(jdbcTemplate).update("UPDATE chat_messages SET is_read = TRUE WHERE id IN (?)", "m500");
+    }
+
+    @Test
+    void markRead_ShouldNotQueryWithoutMessages() {
+        chatMessageBatchWriter.markRead(List.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.techiedating.repository;
+
+import com.example.techiedating.model.ConversationSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ConversationSummaryRepositoryTest {
+
+    private static final LocalDateTime READ_AT = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void addUnread_ShouldSkipMessagesSentAtOrBeforeTheReadWatermark() {
+        persist("alice", READ_AT, 0);
+
+        assertEquals(0, conversationSummaryRepository.addUnread("alice_bob", "alice", 1, READ_AT.minusSeconds(1)));
+        assertEquals(0, conversationSummaryRepository.addUnread("alice_bob", "alice", 1, READ_AT));
+        assertEquals(0, reload("alice").getUnreadCount());
+
+        assertEquals(1, conversationSummaryRepository.addUnread("alice_bob", "alice", 2, READ_AT.plusSeconds(1)));
+        assertEquals(2, reload("alice").getUnreadCount());
+    }
+
+    @Test
+    void addUnread_ShouldCountEveryMessageBeforeTheFirstRead() {
+        persist("alice", null, 1);
+
+        assertEquals(1, conversationSummaryRepository.addUnread("alice_bob", "alice", 3, READ_AT.minusDays(1)));
+        assertEquals(4, reload("alice").getUnreadCount());
+    }
+
+    @Test
+    void markRead_ShouldNeverMoveTheWatermarkBackwards() {
+        persist("alice", READ_AT, 3);
+
+        assertEquals(0, conversationSummaryRepository.markRead("alice_bob", "alice", READ_AT.minusMinutes(5)));
+        ConversationSummary unchanged = reload("alice");
+        assertEquals(READ_AT, unchanged.getLastReadAt());
+        assertEquals(3, unchanged.getUnreadCount());
+
+        assertEquals(1, conversationSummaryRepository.markRead("alice_bob", "alice", READ_AT.plusMinutes(5)));
+        ConversationSummary read = reload("alice");
+        assertEquals(READ_AT.plusMinutes(5), read.getLastReadAt());
+        assertEquals(0, read.getUnreadCount());
+    }
+
+    @Test
+    void markRead_ShouldOnlyTouchThatParticipantsSummary() {
+        persist("alice", null, 2);
+        persist("bob", null, 1);
+
+        conversationSummaryRepository.markRead("alice_bob", "alice", READ_AT);
+
+        assertEquals(0, reload("alice").getUnreadCount());
+        ConversationSummary other = reload("bob");
+        assertEquals(1, other.getUnreadCount());
+        assertNull(other.getLastReadAt());
+    }
+
+    private void persist(String userId, LocalDateTime lastReadAt, long unreadCount) {
+        entityManager.persistAndFlush(ConversationSummary.builder()
+                .conversationId("alice_bob")
+                .userId(userId)
+                .otherUserId("alice".equals(userId) ? "bob" : "alice")
+                .unreadCount(unreadCount)
+                .lastReadAt(lastReadAt)
+                .build());
+        entityManager.clear();
+    }
+
+    /**
+     * Read the row back past the persistence context, which bulk updates bypass
+     */
+    private ConversationSummary reload(String userId) {
+        entityManager.clear();
+        return entityManager.find(ConversationSummary.class, new ConversationSummary.Key("alice_bob", userId));
+    }
+}
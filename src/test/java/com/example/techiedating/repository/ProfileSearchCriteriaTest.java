@@ -0,0 +1,47 @@
+package com.example.techiedating.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileSearchCriteriaTest {
+
+    @Test
+    void filterFingerprint_ShouldDifferForIdListsWithEqualHashCodes() {
+        // "Aa" and "BB" share a String hash code, so these lists have equal sizes and hash codes
+        List<String> first = List.of("Aa", "BB");
+        List<String> second = List.of("BB", "Aa");
+        List<String> third = List.of("Aa", "Aa");
+        assertEquals(first.hashCode(), third.hashCode());
+
+        assertNotEquals(ranked(first).filterFingerprint(), ranked(third).filterFingerprint());
+        assertNotEquals(candidates(first).filterFingerprint(), candidates(third).filterFingerprint());
+        assertNotEquals(ranked(first).filterFingerprint(), ranked(second).filterFingerprint());
+    }
+
+    @Test
+    void filterFingerprint_ShouldIgnoreCandidateOrderAndTheSearcher() {
+        ProfileSearchCriteria criteria = candidates(List.of("u2", "u3", "u4"));
+        ProfileSearchCriteria reordered = candidates(List.of("u4", "u2", "u3")).toBuilder()
+                .currentUserId("u9").afterId("u2").build();
+
+        assertEquals(criteria.filterFingerprint(), reordered.filterFingerprint());
+    }
+
+    @Test
+    void filterFingerprint_ShouldDistinguishRankedFromCandidateIds() {
+        List<String> ids = List.of("u2", "u3");
+
+        assertNotEquals(ranked(ids).filterFingerprint(), candidates(ids).filterFingerprint());
+    }
+
+    private static ProfileSearchCriteria ranked(List<String> ids) {
+        return ProfileSearchCriteria.builder().currentUserId("u1").rankedIds(ids).build();
+    }
+
+    private static ProfileSearchCriteria candidates(List<String> ids) {
+        return ProfileSearchCriteria.builder().currentUserId("u1").candidateIds(ids).build();
+    }
+}
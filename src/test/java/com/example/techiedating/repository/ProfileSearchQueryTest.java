@@ -0,0 +1,190 @@
+package com.example.techiedating.repository;
+
+import com.example.techiedating.model.Gender;
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.ProfileSearchQuery.Projection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ProfileSearchQueryTest {
+
+    private static final Pattern PARAMETER = Pattern.compile(":(\\w+)");
+
+    @Test
+    void create_ShouldReuseStatementForSameFiltersWithOtherValues() {
+        String first = statement(ProfileSearchCriteria.builder()
+                .currentUserId("u1").gender("male").minExperience(2).skillIds(List.of(1, 2)).build());
+        String second = statement(ProfileSearchCriteria.builder()
+                .currentUserId("u2").gender("FEMALE").minExperience(7).skillIds(List.of(9)).build());
+
+        assertSame(first, second);
+        assertFalse(first.contains("u1"));
+    }
+
+    @Test
+    void create_ShouldBindEveryParameterOfTheStatement() {
+        ProfileSearchCriteria criteria = ProfileSearchCriteria.builder()
+                .currentUserId("u1")
+                .query("java")
+                .gender("male")
+                .minExperience(1)
+                .maxExperience(10)
+                .skillIds(List.of(3))
+                .latitude(52.5)
+                .longitude(179.9)
+                .maxDistanceKm(50.0)
+                .sortKey(ProfileSortKey.EXPERIENCE)
+                .descending(true)
+                .afterValue("4")
+                .afterId("u9")
+                .build();
+
+        EntityManager entityManager = mock(EntityManager.class);
+        @SuppressWarnings("unchecked")
+        TypedQuery<UserProfile> query = mock(TypedQuery.class, RETURNS_SELF);
+        when(entityManager.createQuery(anyString(), eq(UserProfile.class))).thenReturn(query);
+
+        new ProfileSearchQuery(criteria, Projection.PROFILE).create(entityManager, UserProfile.class);
+
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createQuery(statement.capture(), eq(UserProfile.class));
+        ArgumentCaptor<String> bound = ArgumentCaptor.forClass(String.class);
+        verify(query, atLeastOnce()).setParameter(bound.capture(), any());
+
+        Set<String> placeholders = new TreeSet<>();
+        Matcher matcher = PARAMETER.matcher(statement.getValue());
+        while (matcher.find()) {
+            placeholders.add(matcher.group(1));
+        }
+        assertEquals(placeholders, new TreeSet<>(bound.getAllValues()));
+        assertTrue(statement.getValue().contains("p.longitude >= :minLongitude OR p.longitude <= :maxLongitude"));
+        assertTrue(statement.getValue().endsWith("ORDER BY p.experienceYrs DESC, p.id DESC"));
+    }
+
+    @Test
+    void create_ShouldFilterSkillsWithExistsAndBindGenderAsEnum() {
+        ProfileSearchCriteria criteria = ProfileSearchCriteria.builder()
+                .currentUserId("u1").gender("female").skillIds(List.of(3, 4)).build();
+
+        Map<String, Object> parameters = parameters(criteria);
+
+        assertTrue(statement(criteria).contains(
+                "EXISTS (SELECT 1 FROM UserSkill us WHERE us.user.id = p.id AND us.skill.id IN :skillIds)"));
+        assertEquals(Gender.FEMALE, parameters.get("gender"));
+        assertEquals(List.of(3, 4), parameters.get("skillIds"));
+    }
+
+    @Test
+    void create_ShouldBoundRadiusByBoxThenGreatCircle() {
+        double oneDegreeKm = 6371.0 * Math.PI / 180.0;
+        ProfileSearchCriteria criteria = ProfileSearchCriteria.builder()
+                .currentUserId("u1").latitude(0.0).longitude(10.0).maxDistanceKm(oneDegreeKm).build();
+
+        Map<String, Object> parameters = parameters(criteria);
+
+        assertEquals(-1.0, (Double) parameters.get("minLatitude"), 1e-9);
+        assertEquals(1.0, (Double) parameters.get("maxLatitude"), 1e-9);
+        assertEquals(10.0 - 1.0 / Math.cos(Math.toRadians(1.0)), (Double) parameters.get("minLongitude"), 1e-9);
+        assertEquals(10.0 + 1.0 / Math.cos(Math.toRadians(1.0)), (Double) parameters.get("maxLongitude"), 1e-9);
+        double halfAngle = Math.toRadians(0.5);
+        assertEquals(Math.sin(halfAngle) * Math.sin(halfAngle), (Double) parameters.get("threshold"), 1e-12);
+        assertTrue(statement(criteria).contains("p.longitude BETWEEN :minLongitude AND :maxLongitude"));
+    }
+
+    @Test
+    void create_ShouldNotBoundLongitudeWhenTheRadiusReachesAPole() {
+        ProfileSearchCriteria criteria = ProfileSearchCriteria.builder()
+                .currentUserId("u1").latitude(89.5).longitude(0.0).maxDistanceKm(100.0).build();
+
+        Map<String, Object> parameters = parameters(criteria);
+
+        assertFalse(parameters.containsKey("minLongitude"));
+        assertTrue(parameters.containsKey("threshold"));
+        assertFalse(statement(criteria).contains(":minLongitude"));
+    }
+
+    @Test
+    void create_ShouldSkipGreatCircleCheckWhenTheRadiusCoversTheGlobe() {
+        ProfileSearchCriteria criteria = ProfileSearchCriteria.builder()
+                .currentUserId("u1").latitude(10.0).longitude(10.0).maxDistanceKm(25_000.0).build();
+
+        Map<String, Object> parameters = parameters(criteria);
+
+        assertFalse(parameters.containsKey("threshold"));
+        assertFalse(statement(criteria).contains(":threshold"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void create_ShouldGroupFacetsUnderTheSearchFilters() {
+        ProfileSearchCriteria criteria = ProfileSearchCriteria.builder()
+                .currentUserId("u1").gender("male").minExperience(3).sortKey(ProfileSortKey.EXPERIENCE).build();
+        EntityManager entityManager = mock(EntityManager.class);
+        TypedQuery<Object[]> query = mock(TypedQuery.class, RETURNS_SELF);
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(query);
+
+        new ProfileSearchQuery(criteria, Projection.GENDER_EXPERIENCE_FACETS).create(entityManager, Object[].class);
+        new ProfileSearchQuery(criteria, Projection.SKILL_CATEGORY_FACETS, List.of(4, 5))
+                .create(entityManager, Object[].class);
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(entityManager, times(2)).createQuery(statements.capture(), eq(Object[].class));
+        String genderExperience = statements.getAllValues().get(0);
+        String skillCategories = statements.getAllValues().get(1);
+        String bucket = "CASE WHEN p.experienceYrs IS NULL THEN -1 WHEN p.experienceYrs < 2 THEN 0 "
+                + "WHEN p.experienceYrs < 5 THEN 1 WHEN p.experienceYrs < 10 THEN 2 ELSE 3 END";
+        assertTrue(genderExperience.startsWith("SELECT p.gender, " + bucket + ", count(p) FROM UserProfile p"));
+        assertTrue(genderExperience.contains("p.gender = :gender"));
+        assertTrue(genderExperience.endsWith("GROUP BY p.gender, " + bucket));
+        assertTrue(skillCategories.startsWith("SELECT fs.category, count(DISTINCT p.id) FROM UserProfile p"));
+        assertTrue(skillCategories.endsWith("AND fs.id IN :facetSkillIds GROUP BY fs.category"));
+        assertFalse(genderExperience.contains("ORDER BY"));
+        assertFalse(skillCategories.contains("ORDER BY"));
+        verify(query).setParameter("facetSkillIds", List.of(4, 5));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parameters(ProfileSearchCriteria criteria) {
+        EntityManager entityManager = mock(EntityManager.class);
+        TypedQuery<Long> query = mock(TypedQuery.class, RETURNS_SELF);
+        when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(query);
+
+        new ProfileSearchQuery(criteria, Projection.COUNT).create(entityManager, Long.class);
+
+        ArgumentCaptor<String> names = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object> values = ArgumentCaptor.forClass(Object.class);
+        verify(query, atLeastOnce()).setParameter(names.capture(), values.capture());
+        Map<String, Object> parameters = new HashMap<>();
+        for (int i = 0; i < names.getAllValues().size(); i++) {
+            parameters.put(names.getAllValues().get(i), values.getAllValues().get(i));
+        }
+        return parameters;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String statement(ProfileSearchCriteria criteria) {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(mock(TypedQuery.class, RETURNS_SELF));
+
+        new ProfileSearchQuery(criteria, Projection.COUNT).create(entityManager, Long.class);
+
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createQuery(statement.capture(), eq(Long.class));
+        return statement.getValue();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.techiedating.repository;
+
+import com.example.techiedating.model.Gender;
+import com.example.techiedating.model.SkillCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class UserProfileRepositoryCustomImplTest {
+
+    private EntityManager entityManager;
+    private TypedQuery<Object[]> genderExperience;
+    private TypedQuery<Object[]> skillCategories;
+    private UserProfileRepositoryCustomImpl repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        genderExperience = mock(TypedQuery.class, RETURNS_SELF);
+        skillCategories = mock(TypedQuery.class, RETURNS_SELF);
+        when(entityManager.createQuery(startsWith("SELECT p.gender"), eq(Object[].class))).thenReturn(genderExperience);
+        when(entityManager.createQuery(startsWith("SELECT fs.category"), eq(Object[].class))).thenReturn(skillCategories);
+        repository = new UserProfileRepositoryCustomImpl();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @Test
+    void countFacets_ShouldSumGroupsIntoGenderAndExperienceBuckets() {
+        when(genderExperience.getResultList()).thenReturn(List.of(
+                new Object[]{Gender.FEMALE, 0, 3L},
+                new Object[]{Gender.FEMALE, 2, 4L},
+                new Object[]{Gender.MALE, 2, 1L},
+                new Object[]{null, 3, 2L},
+                new Object[]{Gender.MALE, -1, 5L}));
+        when(skillCategories.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{SkillCategory.DATABASES, 6L}));
+
+        ProfileFacets facets = repository.countFacets(criteria(), List.of(1, 2));
+
+        assertEquals(Map.of(Gender.MALE, 6L, Gender.FEMALE, 7L, Gender.NON_BINARY, 0L, Gender.OTHER, 0L),
+                facets.getGenders());
+        Map<String, Long> experience = new LinkedHashMap<>();
+        experience.put("0-1", 3L);
+        experience.put("2-4", 0L);
+        experience.put("5-9", 5L);
+        experience.put("10+", 2L);
+        experience.put("unknown", 5L);
+        assertEquals(List.copyOf(experience.entrySet()), List.copyOf(facets.getExperience().entrySet()));
+        assertEquals(Map.of(SkillCategory.DATABASES, 6L), facets.getSkillCategories());
+    }
+
+    @Test
+    void countFacets_ShouldSkipSkillCategoriesWithoutFacetSkills() {
+        when(genderExperience.getResultList()).thenReturn(List.of());
+
+        ProfileFacets facets = repository.countFacets(criteria(), List.of());
+
+        assertTrue(facets.getSkillCategories().isEmpty());
+        assertEquals(0L, facets.getExperience().get("unknown"));
+        verify(entityManager, never()).createQuery(startsWith("SELECT fs.category"), eq(Object[].class));
+    }
+
+    @Test
+    void countFacets_ShouldNotQueryWhenNothingCanMatch() {
+        ProfileFacets facets = repository.countFacets(criteria().toBuilder().candidateIds(List.of()).build(), List.of(1));
+
+        assertEquals(0L, facets.getGenders().get(Gender.MALE));
+        assertEquals(5, facets.getExperience().size());
+        verify(entityManager, never()).createQuery(anyString(), eq(Object[].class));
+    }
+
+    private static ProfileSearchCriteria criteria() {
+        return ProfileSearchCriteria.builder().currentUserId("u1").build();
+    }
+}
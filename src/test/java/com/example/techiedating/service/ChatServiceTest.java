@@ -0,0 +1,110 @@
+package com.example.techiedating.service;
+
+import com.example.techiedating.model.ChatMessage;
+import com.example.techiedating.repository.ChatMessageRepository;
+import com.example.techiedating.service.cache.ChatCacheService;
+import com.example.techiedating.service.chat.ConversationSummaryService;
+import com.example.techiedating.service.chat.UnreadCounterService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatServiceTest {
+
+    @Mock
+    private ChatMessageRepository chatMessageRepository;
+
+    @Mock
+    private ChatCacheService chatCacheService;
+
+    @Mock
+    private ConversationSummaryService conversationSummaryService;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    @InjectMocks
+    private ChatService chatService;
+
+    @Test
+    void markConversationAsRead_ShouldFlagMessagesUpToTheWatermarkAndEvict() {
+        when(chatMessageRepository.markReadUpTo(eq("alice_bob"), eq("alice"), any(LocalDateTime.class)))
+                .thenReturn(3);
+
+        chatService.markConversationAsRead("alice_bob", "alice");
+
+        verify(conversationSummaryService).markConversationRead(eq("alice_bob"), eq("alice"), any(LocalDateTime.class));
+        verify(unreadCounterService).messagesRead("alice", 3);
+        verify(chatCacheService).evictConversationRead("alice_bob", "alice");
+    }
+
+    @Test
+    void markConversationAsRead_ShouldOnlyChangeTheUnreadCounterOnceCommitted() {
+        when(chatMessageRepository.markReadUpTo(eq("alice_bob"), eq("alice"), any(LocalDateTime.class)))
+                .thenReturn(2);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            chatService.markConversationAsRead("alice_bob", "alice");
+
+            verify(unreadCounterService, never()).messagesRead(anyString(), anyLong());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(unreadCounterService).messagesRead("alice", 2);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void markConversationAsRead_ShouldEvictEvenWhenNoMessageWasUnread() {
+        when(chatMessageRepository.markReadUpTo(eq("alice_bob"), eq("alice"), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        chatService.markConversationAsRead("alice_bob", "alice");
+
+        verify(conversationSummaryService).markConversationRead(eq("alice_bob"), eq("alice"), any(LocalDateTime.class));
+        verify(unreadCounterService, never()).messagesRead(anyString(), anyLong());
+        verify(chatCacheService).evictConversationRead("alice_bob", "alice");
+    }
+
+    @Test
+    void saveMessage_ShouldSaveMessagesTheReadWatermarkCoversAsRead() {
+        ChatMessage message = ChatMessage.builder().senderId("bob").recipientId("alice").content("hi").build();
+        when(chatMessageRepository.save(message)).thenReturn(message);
+        when(conversationSummaryService.recordMessages(List.of(message))).thenReturn(List.of());
+
+        ChatMessage saved = chatService.saveMessage(message);
+
+        assertTrue(saved.isRead());
+        verify(unreadCounterService).messagesReceived(List.of());
+        verify(chatCacheService).evictConversation("alice_bob", "bob", "alice");
+    }
+
+    @Test
+    void saveMessage_ShouldCountMessagesSentAfterTheWatermarkAsUnread() {
+        ChatMessage message = ChatMessage.builder().senderId("bob").recipientId("alice").content("hi").build();
+        when(chatMessageRepository.save(message)).thenReturn(message);
+        when(conversationSummaryService.recordMessages(List.of(message))).thenReturn(List.of(message));
+
+        ChatMessage saved = chatService.saveMessage(message);
+
+        assertFalse(saved.isRead());
+        verify(unreadCounterService).messagesReceived(List.of(message));
+    }
+}
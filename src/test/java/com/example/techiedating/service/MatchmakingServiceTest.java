@@ -0,0 +1,171 @@
+package com.example.techiedating.service;
+
+import com.example.techiedating.dto.MatchRequestDTO;
+import com.example.techiedating.dto.MatchScoreDTO;
+import com.example.techiedating.model.Gender;
+import com.example.techiedating.model.Skill;
+import com.example.techiedating.model.User;
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.SkillRepository;
+import com.example.techiedating.repository.UserProfileRepository;
+import com.example.techiedating.repository.UserRepository;
+import com.example.techiedating.service.cache.MatchmakingCacheService;
+import com.example.techiedating.service.distance.DistanceCalculationService;
+import com.example.techiedating.service.index.GeoGridIndex;
+import com.example.techiedating.service.index.ProfileAttributeIndex;
+import com.example.techiedating.service.index.ProfileSelection;
+import com.example.techiedating.service.index.SkillVector;
+import com.example.techiedating.service.index.SkillVectorIndex;
+import com.example.techiedating.service.ranking.MatchRanking;
+import com.example.techiedating.service.ranking.MatchRankingEngine;
+import com.example.techiedating.service.ranking.MatchRecommendationService;
+import com.example.techiedating.service.ranking.RankedMatch;
+import com.example.techiedating.service.scoring.MatchScoringService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MatchmakingServiceTest {
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SkillRepository skillRepository;
+
+    @Mock
+    private MatchScoringService matchScoringService;
+
+    @Mock
+    private MatchmakingCacheService cacheService;
+
+    @Mock
+    private DistanceCalculationService distanceCalculationService;
+
+    @Mock
+    private SkillVectorIndex skillVectorIndex;
+
+    @Mock
+    private MatchRankingEngine matchRankingEngine;
+
+    @Mock
+    private MatchRecommendationService matchRecommendationService;
+
+    @Mock
+    private ProfileAttributeIndex profileAttributeIndex;
+
+    @Mock
+    private GeoGridIndex geoGridIndex;
+
+    @InjectMocks
+    private MatchmakingService matchmakingService;
+
+    @Test
+    void calculateMatchScore_ShouldScoreFromSkillVectorsAndOnlyLoadUncachedSkillNames() {
+        UserProfile current = profile("user-1");
+        UserProfile other = profile("user-2");
+        SkillVector otherSkills = SkillVector.of(Map.of(1, 3, 2, 2));
+        when(cacheService.getMatchScore(eq("user-1"), eq("user-2"), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<MatchScoreDTO>>getArgument(2).get());
+        when(skillVectorIndex.get("user-2")).thenReturn(otherSkills);
+        when(matchScoringService.calculateMatchScore(eq(current), eq(other), any(SkillVector.class), eq(otherSkills)))
+                .thenReturn(0.7);
+        when(skillRepository.findAllById(List.of(2))).thenReturn(List.of(Skill.builder().id(2).name("Java").build()));
+        Map<Long, String> skillNameCache = new HashMap<>(Map.of(1L, "Go"));
+
+        MatchScoreDTO result = matchmakingService.calculateMatchScore(current, other, Map.of(1, 4, 2, 3), skillNameCache);
+
+        assertEquals("user-2", result.getUserId());
+        assertEquals(0.7, result.getScore());
+        assertEquals(List.of("Go", "Java"), result.getCommonSkills());
+        assertEquals("Java", skillNameCache.get(2L));
+        verify(skillVectorIndex).get("user-2");
+    }
+
+    @Test
+    void searchMatches_ShouldRankEveryCandidatePassingTheFilters() {
+        User user = User.builder().id("user-1").username("alice").build();
+        UserProfile current = profile("user-1");
+        current.setGender(Gender.FEMALE);
+        current.setInterests(Set.of("hiking"));
+        UserProfile candidate = profile("user-2");
+        ProfileSelection selection = mock(ProfileSelection.class);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userProfileRepository.findByUserId("user-1")).thenReturn(Optional.of(current));
+        when(skillVectorIndex.get("user-1")).thenReturn(SkillVector.EMPTY);
+        when(profileAttributeIndex.select("MALE", null, null, null, null)).thenReturn(selection);
+        when(selection.ids()).thenReturn(List.of("user-1", "user-2", "user-3"));
+        when(matchRankingEngine.rankCandidates(current, SkillVector.EMPTY, Set.of("user-2", "user-3")))
+                .thenReturn(new MatchRanking(List.of(new RankedMatch("user-2", 0.9), new RankedMatch("user-3", 0.4)), 2));
+        when(userProfileRepository.findAllById(List.of("user-2"))).thenReturn(List.of(candidate));
+        when(skillVectorIndex.getAll(List.of("user-2"))).thenReturn(Map.of());
+
+        Page<MatchScoreDTO> result = matchmakingService.searchMatches("alice",
+                MatchRequestDTO.builder().gender("MALE").build(), 0, 1);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(1, result.getContent().size());
+        assertEquals("user-2", result.getContent().get(0).getUserId());
+    }
+
+    @Test
+    void scoreProfiles_ShouldLoadCandidateSkillsAndNamesOnceForThePage() {
+        UserProfile current = profile("user-1");
+        UserProfile second = profile("user-2");
+        UserProfile third = profile("user-3");
+        SkillVector currentSkills = SkillVector.of(Map.of(1, 3, 2, 2));
+        SkillVector secondSkills = SkillVector.of(Map.of(1, 1));
+        when(skillVectorIndex.getAll(List.of("user-2", "user-3"))).thenReturn(Map.of("user-2", secondSkills));
+        when(skillRepository.findAllById(List.of(1, 2))).thenReturn(List.of(
+                Skill.builder().id(1).name("Go").build(), Skill.builder().id(2).name("Java").build()));
+        when(matchScoringService.calculateMatchScore(current, second, currentSkills, secondSkills)).thenReturn(0.8);
+        when(matchScoringService.calculateMatchScore(current, third, currentSkills, SkillVector.EMPTY)).thenReturn(0.1);
+
+        List<MatchScoreDTO> results = matchmakingService.scoreProfiles(current, currentSkills, List.of(second, third));
+
+        assertEquals(List.of("user-2", "user-3"), results.stream().map(MatchScoreDTO::getUserId).toList());
+        assertEquals(List.of("Go"), results.get(0).getCommonSkills());
+        assertEquals(List.of(), results.get(1).getCommonSkills());
+        verify(skillVectorIndex).getAll(List.of("user-2", "user-3"));
+        verify(skillRepository).findAllById(List.of(1, 2));
+        verify(skillVectorIndex, never()).get(any());
+    }
+
+    @Test
+    void searchMatches_ShouldRejectOversizedPages() {
+        MatchRequestDTO request = new MatchRequestDTO();
+
+        assertThrows(IllegalArgumentException.class, () -> matchmakingService.searchMatches("alice", request, 0, 101));
+        assertThrows(IllegalArgumentException.class,
+                () -> matchmakingService.searchMatches("alice", request, Integer.MAX_VALUE / 10, 100));
+    }
+
+    private static UserProfile profile(String userId) {
+        return UserProfile.builder()
+                .id(userId)
+                .user(User.builder().id(userId).build())
+                .build();
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.techiedating.service;
+
+import com.example.techiedating.dto.CountStrategy;
+import com.example.techiedating.dto.MatchScoreDTO;
+import com.example.techiedating.dto.PageCursor;
+import com.example.techiedating.dto.SearchRequestDTO;
+import com.example.techiedating.dto.SearchResultDTO;
+import com.example.techiedating.model.User;
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.ProfileSearchCriteria;
+import com.example.techiedating.repository.ProfileSortKey;
+import com.example.techiedating.repository.UserProfileRepository;
+import com.example.techiedating.repository.UserRepository;
+import com.example.techiedating.service.cache.SearchCacheService;
+import com.example.techiedating.service.cache.SearchCandidates;
+import com.example.techiedating.service.index.GeoGridIndex;
+import com.example.techiedating.service.index.ProfileAttributeIndex;
+import com.example.techiedating.service.index.ProfileTextSearch;
+import com.example.techiedating.service.index.SkillVector;
+import com.example.techiedating.service.index.SkillVectorIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @Mock
+    private MatchmakingService matchmakingService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SkillVectorIndex skillVectorIndex;
+
+    @Mock
+    private ObjectProvider<ProfileTextSearch> profileTextSearch;
+
+    @Mock
+    private SearchCacheService searchCacheService;
+
+    @Mock
+    private ProfileAttributeIndex profileAttributeIndex;
+
+    @Mock
+    private GeoGridIndex geoGridIndex;
+
+    @InjectMocks
+    private SearchService searchService;
+
+    private final UserProfile current = profile("user-1");
+    private final SkillVector currentSkills = SkillVector.of(Map.of(1, 3));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchService, "textSearchMaxResults", 1000);
+        ReflectionTestUtils.setField(searchService, "maxRankedResults", 1000);
+        ReflectionTestUtils.setField(searchService, "attributeIndexMaxCandidates", 1000);
+        ReflectionTestUtils.setField(searchService, "cachedCandidateIds", 2000);
+
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(User.builder().id("user-1").build()));
+        when(userProfileRepository.findByUserId("user-1")).thenReturn(Optional.of(current));
+        when(skillVectorIndex.get("user-1")).thenReturn(currentSkills);
+        lenient().when(searchCacheService.getCandidates(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<SearchCandidates>>getArgument(1).get());
+    }
+
+    @Test
+    void searchProfiles_ShouldLoadTheSearcherOnceAndScoreThePageInOneCall() {
+        UserProfile second = profile("user-2");
+        UserProfile third = profile("user-3");
+        List<MatchScoreDTO> scores = List.of(score("user-2"), score("user-3"));
+        when(userProfileRepository.searchProfileIds(any(ProfileSearchCriteria.class), eq(2001)))
+                .thenReturn(List.of("user-2", "user-3"));
+        when(userProfileRepository.findProfilesInOrder(List.of("user-2", "user-3"))).thenReturn(List.of(second, third));
+        when(matchmakingService.scoreProfiles(current, currentSkills, List.of(second, third))).thenReturn(scores);
+
+        SearchResultDTO<MatchScoreDTO> result = searchService.searchProfiles(new SearchRequestDTO(), "alice");
+
+        assertEquals(scores, result.getContent());
+        verify(userRepository, times(1)).findByUsername("alice");
+        verify(userProfileRepository, times(1)).findByUserId("user-1");
+        verify(skillVectorIndex, times(1)).get("user-1");
+        verify(matchmakingService).scoreProfiles(current, currentSkills, List.of(second, third));
+        verifyNoMoreInteractions(matchmakingService);
+    }
+
+    @Test
+    void searchProfiles_ShouldMeasureTheRadiusFromTheRequestedPoint() {
+        current.setLatitude(10.0);
+        current.setLongitude(20.0);
+        when(userProfileRepository.searchProfileIds(any(ProfileSearchCriteria.class), eq(2001))).thenReturn(List.of());
+        when(userProfileRepository.findProfilesInOrder(List.of())).thenReturn(List.of());
+
+        searchService.searchProfiles(SearchRequestDTO.builder().latitude(1.0).longitude(2.0).maxDistanceKm(5.0).build(),
+                "alice");
+
+        verify(userProfileRepository).searchProfileIds(argThat(criteria ->
+                criteria.getLatitude() == 1.0 && criteria.getLongitude() == 2.0
+                        && "user-1".equals(criteria.getCurrentUserId())), eq(2001));
+    }
+
+    @Test
+    void searchProfiles_ShouldRankTextQueriesByTheTextSearchInsteadOfLike() {
+        ProfileTextSearch textSearch = mock(ProfileTextSearch.class);
+        when(profileTextSearch.getIfAvailable()).thenReturn(textSearch);
+        when(textSearch.isReady()).thenReturn(true);
+        when(textSearch.search("rust", 1000)).thenReturn(List.of("user-3", "user-2"));
+        when(userProfileRepository.searchProfileIds(any(ProfileSearchCriteria.class), eq(2001)))
+                .thenReturn(List.of("user-3", "user-2"));
+        when(userProfileRepository.findProfilesInOrder(List.of("user-3", "user-2")))
+                .thenReturn(List.of(profile("user-3"), profile("user-2")));
+
+        searchService.searchProfiles(SearchRequestDTO.builder().query(" rust ").build(), "alice");
+
+        verify(userProfileRepository).searchProfileIds(argThat(criteria ->
+                criteria.getQuery() == null && List.of("user-3", "user-2").equals(criteria.getRankedIds())), eq(2001));
+    }
+
+    @Test
+    void searchProfiles_ShouldKeepLikeUntilTheTextSearchIsReady() {
+        ProfileTextSearch textSearch = mock(ProfileTextSearch.class);
+        when(profileTextSearch.getIfAvailable()).thenReturn(textSearch);
+        when(textSearch.isReady()).thenReturn(false);
+        when(userProfileRepository.searchProfileIds(any(ProfileSearchCriteria.class), eq(2001))).thenReturn(List.of());
+        when(userProfileRepository.findProfilesInOrder(List.of())).thenReturn(List.of());
+
+        searchService.searchProfiles(SearchRequestDTO.builder().query("rust").build(), "alice");
+
+        verify(textSearch, never()).search(anyString(), anyInt());
+        verify(userProfileRepository).searchProfileIds(argThat(criteria ->
+                "rust".equals(criteria.getQuery()) && criteria.getRankedIds() == null), eq(2001));
+    }
+
+    @Test
+    void searchProfiles_ShouldKeepLikeForSingleCharacterQueries() {
+        when(userProfileRepository.searchProfileIds(any(ProfileSearchCriteria.class), eq(2001))).thenReturn(List.of());
+        when(userProfileRepository.findProfilesInOrder(List.of())).thenReturn(List.of());
+
+        searchService.searchProfiles(SearchRequestDTO.builder().query("r").build(), "alice");
+
+        verify(userProfileRepository).searchProfileIds(argThat(criteria ->
+                "r".equals(criteria.getQuery()) && criteria.getRankedIds() == null), eq(2001));
+    }
+
+    @Test
+    void searchProfiles_ShouldTakeTheExactTotalFromCompleteCandidatesWithoutCounting() {
+        when(userProfileRepository.searchProfileIds(any(ProfileSearchCriteria.class), eq(2001)))
+                .thenReturn(List.of("user-2", "user-3", "user-4"));
+        when(userProfileRepository.findProfilesInOrder(List.of("user-2"))).thenReturn(List.of(profile("user-2")));
+
+        SearchResultDTO<MatchScoreDTO> result = searchService.searchProfiles(
+                SearchRequestDTO.builder().size(1).build(), "alice");
+
+        assertEquals(3L, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        assertEquals(CountStrategy.EXACT, result.getCountStrategy());
+        verify(userProfileRepository, never()).countProfiles(any());
+    }
+
+    @Test
+    void searchProfiles_ShouldCountExactlyBeyondTheCachedCandidates() {
+        givenMoreMatchesThanCached();
+        when(userProfileRepository.countProfiles(any(ProfileSearchCriteria.class))).thenReturn(57L);
+
+        SearchResultDTO<MatchScoreDTO> result = searchService.searchProfiles(
+                SearchRequestDTO.builder().size(1).countStrategy(CountStrategy.EXACT).build(), "alice");
+
+        assertEquals(57L, result.getTotalElements());
+        assertEquals(57, result.getTotalPages());
+        verify(searchCacheService, never()).getCount(anyString(), any());
+    }
+
+    @Test
+    void searchProfiles_ShouldReuseCachedCountsWhenEstimated() {
+        givenMoreMatchesThanCached();
+        when(searchCacheService.getCount(anyString(), any())).thenReturn(60L);
+
+        SearchResultDTO<MatchScoreDTO> result = searchService.searchProfiles(
+                SearchRequestDTO.builder().size(1).countStrategy(CountStrategy.ESTIMATED).build(), "alice");
+
+        assertEquals(60L, result.getTotalElements());
+        assertEquals(CountStrategy.ESTIMATED, result.getCountStrategy());
+        verify(userProfileRepository, never()).countProfiles(any());
+    }
+
+    @Test
+    void searchProfiles_ShouldNotCountWhenTheStrategyIsNone() {
+        givenMoreMatchesThanCached();
+
+        SearchResultDTO<MatchScoreDTO> result = searchService.searchProfiles(
+                SearchRequestDTO.builder().size(1).countStrategy(CountStrategy.NONE).build(), "alice");
+
+        assertNull(result.getTotalElements());
+        assertNull(result.getTotalPages());
+        assertFalse(result.isLast());
+        verify(userProfileRepository, never()).countProfiles(any());
+        verify(searchCacheService, never()).getCount(anyString(), any());
+    }
+
+    @Test
+    void searchProfiles_ShouldNotCountCursorPagesByDefault() {
+        when(userProfileRepository.searchProfileIds(any(ProfileSearchCriteria.class), eq(2001)))
+                .thenReturn(List.of("user-2", "user-3"));
+        when(userProfileRepository.findProfilesInOrder(List.of("user-3"))).thenReturn(List.of(profile("user-3")));
+        String cursor = new PageCursor(ProfileSortKey.ID.getProperty(), false, "user-2", "user-2").encode();
+
+        SearchResultDTO<MatchScoreDTO> result = searchService.searchProfiles(
+                SearchRequestDTO.builder().cursor(cursor).build(), "alice");
+
+        assertNull(result.getTotalElements());
+        assertEquals(CountStrategy.NONE, result.getCountStrategy());
+        assertTrue(result.isLast());
+    }
+
+    /**
+     * Three matches with only two cached, so the total isn't known from the candidates
+     */
+    private void givenMoreMatchesThanCached() {
+        ReflectionTestUtils.setField(searchService, "cachedCandidateIds", 2);
+        when(userProfileRepository.searchProfileIds(any(ProfileSearchCriteria.class), eq(3)))
+                .thenReturn(List.of("user-2", "user-3", "user-4"));
+        when(userProfileRepository.findProfilesInOrder(List.of("user-2"))).thenReturn(List.of(profile("user-2")));
+    }
+
+    private static UserProfile profile(String userId) {
+        return UserProfile.builder()
+                .id(userId)
+                .user(User.builder().id(userId).build())
+                .build();
+    }
+
+    private static MatchScoreDTO score(String userId) {
+        return MatchScoreDTO.builder().userId(userId).build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.techiedating.service;
+
+import com.example.techiedating.repository.ProfileSortKey;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchSortModeTest {
+
+    @Test
+    void fromName_ShouldIgnoreCaseAndDashes() {
+        assertEquals(SearchSortMode.MATCH_SCORE, SearchSortMode.fromName("match-score"));
+        assertEquals(SearchSortMode.MATCH_SCORE, SearchSortMode.fromName("matchScore"));
+        assertEquals(SearchSortMode.RECENCY, SearchSortMode.fromName("RECENCY"));
+    }
+
+    @Test
+    void fromName_ShouldRejectUnindexedFields() {
+        assertThrows(IllegalArgumentException.class, () -> SearchSortMode.fromName("bio"));
+        assertThrows(IllegalArgumentException.class, () -> SearchSortMode.fromName("createdAt"));
+    }
+
+    @Test
+    void isRanked_ShouldOnlyHoldForModesWithoutSortKey() {
+        assertTrue(SearchSortMode.DISTANCE.isRanked());
+        assertFalse(SearchSortMode.EXPERIENCE.isRanked());
+        assertEquals(ProfileSortKey.EXPERIENCE, SearchSortMode.EXPERIENCE.getSortKey());
+    }
+}
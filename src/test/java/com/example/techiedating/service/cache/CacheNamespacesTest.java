@@ -0,0 +1,46 @@
+package com.example.techiedating.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheNamespacesTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private CacheNamespaces cacheNamespaces;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        cacheNamespaces = new CacheNamespaces(cacheManager);
+    }
+
+    @Test
+    void key_ShouldStayInTheSameNamespaceUntilInvalidated() {
+        String key = cacheNamespaces.key("user-1", "page:0");
+
+        assertEquals(key, cacheNamespaces.key("user-1", "page:0"));
+        assertNotEquals(key, cacheNamespaces.key("user-2", "page:0"));
+
+        cacheNamespaces.invalidate("user-1");
+
+        assertNotEquals(key, cacheNamespaces.key("user-1", "page:0"));
+    }
+
+    @Test
+    void key_ShouldNotReuseAnEarlierNamespaceOnceItsVersionIsEvicted() {
+        String initial = cacheNamespaces.key("user-1", "page:0");
+        cacheNamespaces.invalidate("user-1");
+        String invalidated = cacheNamespaces.key("user-1", "page:0");
+
+        cacheManager.getCache(CacheNamespaces.VERSIONS_CACHE).evict("user-1");
+        String afterEviction = cacheNamespaces.key("user-1", "page:0");
+
+        assertNotEquals(initial, afterEviction);
+        assertNotEquals(invalidated, afterEviction);
+        assertNotEquals("user-1:0:page:0", afterEviction);
+        assertEquals(afterEviction, cacheNamespaces.key("user-1", "page:0"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.techiedating.service.cache;
+
+import com.example.techiedating.dto.MatchScoreDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchmakingCacheServiceTest {
+
+    private MatchmakingCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        cacheService = new MatchmakingCacheService(new ReadThroughCache(cacheManager), new CacheNamespaces(cacheManager));
+    }
+
+    @Test
+    void getMatches_ShouldComputeOnceAndServeRepeatsFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+        List<MatchScoreDTO> page = List.of(MatchScoreDTO.builder().userId("user-2").build());
+
+        cacheService.getMatches("user-1", 0, 10, () -> { loads.incrementAndGet(); return page; });
+        List<MatchScoreDTO> cached = cacheService.getMatches("user-1", 0, 10, () -> { loads.incrementAndGet(); return page; });
+
+        assertEquals(page, cached);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evictUser_ShouldOnlyDropEntriesForThatUser() {
+        MatchScoreDTO score = MatchScoreDTO.builder().score(0.5).build();
+        cacheService.putMatches("user-1", 0, 10, List.of());
+        cacheService.putMatches("user-2", 0, 10, List.of());
+        cacheService.putMatchScore("user-1", "user-2", score);
+        cacheService.putMatchScore("user-2", "user-1", score);
+        cacheService.putMatchScore("user-2", "user-3", score);
+
+        cacheService.evictUser("user-1");
+
+        AtomicInteger loads = new AtomicInteger();
+        cacheService.getMatches("user-1", 0, 10, () -> { loads.incrementAndGet(); return List.of(); });
+        cacheService.getMatches("user-2", 0, 10, () -> { loads.incrementAndGet(); return List.of(); });
+        cacheService.getMatchScore("user-1", "user-2", () -> { loads.incrementAndGet(); return score; });
+        cacheService.getMatchScore("user-2", "user-1", () -> { loads.incrementAndGet(); return score; });
+        cacheService.getMatchScore("user-2", "user-3", () -> { loads.incrementAndGet(); return score; });
+
+        assertEquals(3, loads.get());
+    }
+}
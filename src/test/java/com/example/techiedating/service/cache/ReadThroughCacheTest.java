@@ -0,0 +1,131 @@
+package com.example.techiedating.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadThroughCacheTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private ReadThroughCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReadThroughCache(cacheManager, ReadThroughCache.DEFAULT_REFRESH_AHEAD_RATIO, refreshes::add);
+    }
+
+    @Test
+    void get_ShouldCoalesceConcurrentMisses() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(() -> cache.get("matches", "user-1", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "page";
+            })));
+            loading.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                results.add(pool.submit(() -> cache.get("matches", "user-1", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("page", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_ShouldServeFreshEntriesWithoutRefreshing() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("matches", "user-1", () -> { loads.incrementAndGet(); return "page"; });
+        assertEquals("page", cache.get("matches", "user-1", () -> { loads.incrementAndGet(); return "other"; }));
+
+        assertEquals(1, loads.get());
+        assertTrue(refreshes.isEmpty());
+    }
+
+    @Test
+    void get_ShouldRefreshEntriesPastTheirSoftExpiryInTheBackground() {
+        putDue("old");
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("old", cache.get("matches", "user-1", () -> { loads.incrementAndGet(); return "new"; }));
+        assertEquals("old", cache.get("matches", "user-1", () -> { loads.incrementAndGet(); return "other"; }));
+        assertEquals(0, loads.get());
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+
+        assertEquals(1, loads.get());
+        assertEquals("new", cache.get("matches", "user-1", () -> "newer"));
+    }
+
+    @Test
+    void get_ShouldKeepCurrentValueWhenRefreshFails() {
+        putDue("current");
+
+        assertEquals("current", cache.get("matches", "user-1", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        refreshes.get(0).run();
+
+        assertEquals("current", cache.getIfPresent("matches", "user-1", String.class));
+    }
+
+    @Test
+    void get_ShouldServeTheCurrentValueWhenTheRefreshPoolIsFull() {
+        cache = new ReadThroughCache(cacheManager, ReadThroughCache.DEFAULT_REFRESH_AHEAD_RATIO, task -> {
+            throw new RejectedExecutionException("full");
+        });
+        putDue("current");
+
+        assertEquals("current", cache.get("matches", "user-1", () -> "new"));
+        assertEquals("current", cache.get("matches", "user-1", () -> "new"));
+    }
+
+    @Test
+    void constructor_ShouldRejectRatiosOutsideZeroToOne() {
+        assertThrows(IllegalArgumentException.class, () -> new ReadThroughCache(cacheManager, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new ReadThroughCache(cacheManager, 1.5));
+        assertDoesNotThrow(() -> new ReadThroughCache(cacheManager, 1.0, Runnable::run));
+    }
+
+    private void putDue(String value) {
+        cacheManager.getCache("matches").put("user-1", new CachedValue(value, 0L));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
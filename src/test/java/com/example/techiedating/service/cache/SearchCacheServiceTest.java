@@ -0,0 +1,42 @@
+package com.example.techiedating.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCacheServiceTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private SearchCacheService searchCacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        searchCacheService = new SearchCacheService(new ReadThroughCache(cacheManager));
+    }
+
+    @Test
+    void getCount_ShouldCountOncePerFilterFingerprint() {
+        AtomicInteger counts = new AtomicInteger();
+
+        long first = searchCacheService.getCount("filters-a", () -> { counts.incrementAndGet(); return 42L; });
+        long repeat = searchCacheService.getCount("filters-a", () -> { counts.incrementAndGet(); return 0L; });
+        long other = searchCacheService.getCount("filters-b", () -> { counts.incrementAndGet(); return 7L; });
+
+        assertEquals(42L, first);
+        assertEquals(42L, repeat);
+        assertEquals(7L, other);
+        assertEquals(2, counts.get());
+    }
+
+    @Test
+    void getCount_ShouldReadBackCountsDeserializedAsInteger() {
+        cacheManager.getCache("searchCount").put("filters-a", new CachedValue(12, Long.MAX_VALUE));
+
+        assertEquals(12L, searchCacheService.getCount("filters-a", () -> { throw new AssertionError("counted"); }));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.techiedating.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoTierCacheTest {
+
+    private ConcurrentMapCache local;
+    private ConcurrentMapCache remote;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        local = new ConcurrentMapCache("matches", false);
+        remote = new ConcurrentMapCache("matches", false);
+        cache = new TwoTierCache(local, remote);
+    }
+
+    @Test
+    void get_ShouldPopulateLocalTierFromRemote() {
+        remote.put("user-1", "value");
+
+        assertEquals("value", cache.get("user-1", String.class));
+        assertEquals("value", local.get("user-1", String.class));
+    }
+
+    @Test
+    void put_ShouldWriteBothTiers() {
+        cache.put("user-1", "value");
+
+        assertEquals("value", local.get("user-1", String.class));
+        assertEquals("value", remote.get("user-1", String.class));
+    }
+
+    @Test
+    void evict_ShouldRemoveFromBothTiers() {
+        cache.put("user-1", "value");
+
+        cache.evict("user-1");
+
+        assertNull(local.get("user-1"));
+        assertNull(remote.get("user-1"));
+    }
+
+    @Test
+    void getWithLoader_ShouldLoadOnceAndCacheInBothTiers() {
+        assertEquals("loaded", cache.get("user-1", () -> "loaded"));
+        assertEquals("loaded", cache.get("user-1", () -> "reloaded"));
+        assertEquals("loaded", local.get("user-1", String.class));
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.techiedating.service.chat;
+
+import com.example.techiedating.model.ChatMessage;
+import com.example.techiedating.repository.ChatMessageBatchWriter;
+import com.example.techiedating.service.cache.ChatCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatIngestionPipelineTest {
+
+    @Mock
+    private ChatMessageBatchWriter chatMessageBatchWriter;
+
+    @Mock
+    private ChatCacheService chatCacheService;
+
+    @Mock
+    private ConversationSummaryService conversationSummaryService;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ChatIngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new ChatIngestionPipeline(chatMessageBatchWriter, chatCacheService,
+                conversationSummaryService, unreadCounterService, meterRegistry);
+        lenient().when(conversationSummaryService.recordMessages(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        ReflectionTestUtils.setField(pipeline, "durability", ChatIngestionPipeline.Durability.PERSISTED);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 16);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 8);
+        ReflectionTestUtils.setField(pipeline, "offerTimeoutMs", 10L);
+        ReflectionTestUtils.setField(pipeline, "shutdownTimeoutMs", 1000L);
+        pipeline.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void submit_ShouldAssignServerFieldsAndAcknowledgeOncePersisted() throws Exception {
+        ChatMessage message = message("bob", "alice");
+
+        CompletableFuture<ChatMessage> acknowledged = pipeline.submit(message);
+
+        assertNotNull(message.getId());
+        assertEquals("alice_bob", message.getConversationId());
+        assertNotNull(message.getCreatedAt());
+        assertSame(message, acknowledged.get(5, TimeUnit.SECONDS));
+        verify(chatMessageBatchWriter).insertAll(argThat(messages -> messages.contains(message)));
+        verify(conversationSummaryService).recordMessages(argThat(messages -> messages.contains(message)));
+        verify(chatCacheService).evictConversation("alice_bob", "bob", "alice");
+    }
+
+    @Test
+    void submit_ShouldFlagMessagesTheReadWatermarkCoversAsReadWithoutCountingThem() throws Exception {
+        ChatMessage message = message("bob", "alice");
+        when(conversationSummaryService.recordMessages(argThat(messages -> messages.contains(message))))
+                .thenReturn(List.of());
+
+        assertSame(message, pipeline.submit(message).get(5, TimeUnit.SECONDS));
+
+        assertTrue(message.isRead());
+        verify(chatMessageBatchWriter).markRead(List.of(message.getId()));
+        verify(unreadCounterService).messagesReceived(List.of());
+    }
+
+    @Test
+    void submit_ShouldOnlyFailTheMessageThatCannotBeSaved() throws Exception {
+        ChatMessage bad = message("bob", "alice");
+        // Lenient: batches without the bad message don't match this stubbing
+        lenient().doThrow(new DataIntegrityViolationException("rejected"))
+                .when(chatMessageBatchWriter).insertAll(argThat(messages -> messages.contains(bad)));
+
+        CompletableFuture<ChatMessage> failed = pipeline.submit(bad);
+        CompletableFuture<ChatMessage> saved = pipeline.submit(message("carol", "alice"));
+
+        assertNotNull(saved.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+    }
+
+    @Test
+    void submit_ShouldRejectMessagesWhileTheQueueStaysFull() throws Exception {
+        CountDownLatch release = blockWriter();
+        try {
+            List<CompletableFuture<ChatMessage>> submitted = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                submitted.add(pipeline.submit(message("bob", "alice")));
+            }
+
+            List<CompletableFuture<ChatMessage>> rejected = submitted.stream()
+                    .filter(CompletableFuture::isCompletedExceptionally)
+                    .toList();
+            assertFalse(rejected.isEmpty());
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(0).get());
+            assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+            assertEquals(rejected.size(), meterRegistry.counter("chat.ingestion.overflow").count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void whenSaved_ShouldDeferActionsUntilThePendingMessageIsSaved() throws Exception {
+        CountDownLatch release = blockWriter();
+        ChatMessage message = message("bob", "alice");
+        CompletableFuture<ChatMessage> acknowledged = pipeline.submit(message);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        pipeline.whenSaved(message.getId(), ran::countDown);
+
+        assertEquals(1, ran.getCount());
+        release.countDown();
+        assertSame(message, acknowledged.get(5, TimeUnit.SECONDS));
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void whenSaved_ShouldRunRightAwayForMessagesNotWaitingToBeSaved() {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        pipeline.whenSaved("already-saved", () -> ran.set(true));
+
+        assertTrue(ran.get());
+    }
+
+    /**
+     * Hold every insert until the returned latch is released, so submitted messages stay queued
+     */
+    private CountDownLatch blockWriter() {
+        CountDownLatch release = new CountDownLatch(1);
+        lenient().doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(chatMessageBatchWriter).insertAll(any());
+        return release;
+    }
+
+    private static ChatMessage message(String senderId, String recipientId) {
+        ChatMessage message = new ChatMessage();
+        message.setSenderId(senderId);
+        message.setRecipientId(recipientId);
+        message.setContent("hi");
+        return message;
+    }
+}
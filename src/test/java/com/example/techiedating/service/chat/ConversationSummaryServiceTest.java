@@ -0,0 +1,98 @@
+package com.example.techiedating.service.chat;
+
+import com.example.techiedating.model.ChatMessage;
+import com.example.techiedating.model.ConversationSummary;
+import com.example.techiedating.repository.ConversationSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationSummaryServiceTest {
+
+    @Mock
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Test
+    void recordMessages_ShouldUpdateEachParticipantOnceWithTheLatestMessage() {
+        ConversationSummaryService service = new ConversationSummaryService(conversationSummaryRepository);
+        when(conversationSummaryRepository.findAllById(anyIterable())).thenReturn(List.of(
+                summary("alice_bob", "alice"), summary("alice_bob", "bob")));
+        LocalDateTime now = LocalDateTime.now();
+        ChatMessage first = message("m1", "bob", "alice", now);
+        ChatMessage second = message("m2", "bob", "alice", now.plusSeconds(1));
+
+        when(conversationSummaryRepository.addUnread("alice_bob", "alice", 2L, first.getCreatedAt())).thenReturn(1);
+
+        List<ChatMessage> unread = service.recordMessages(List.of(second, first));
+
+        assertEquals(List.of(second, first), unread);
+        verify(conversationSummaryRepository).updateLastMessage("alice_bob", "alice", "m2", "bob", "hi",
+                ChatMessage.MessageType.TEXT, second.getCreatedAt());
+        verify(conversationSummaryRepository).updateLastMessage("alice_bob", "bob", "m2", "bob", "hi",
+                ChatMessage.MessageType.TEXT, second.getCreatedAt());
+        verify(conversationSummaryRepository, never()).addUnread(eq("alice_bob"), eq("bob"), anyLong(), any());
+        verify(conversationSummaryRepository, never()).insertIfAbsent(any(), any(), any());
+    }
+
+    @Test
+    void recordMessages_ShouldInsertMissingSummariesInTheSameTransaction() {
+        ConversationSummaryService service = new ConversationSummaryService(conversationSummaryRepository);
+        when(conversationSummaryRepository.findAllById(anyIterable())).thenReturn(List.of(summary("alice_bob", "bob")));
+        ChatMessage message = message("m1", "bob", "alice", LocalDateTime.now());
+
+        service.recordMessages(List.of(message));
+
+        verify(conversationSummaryRepository).insertIfAbsent("alice_bob", "alice", "bob");
+        verify(conversationSummaryRepository, never()).insertIfAbsent(eq("alice_bob"), eq("bob"), any());
+        verify(conversationSummaryRepository).addUnread("alice_bob", "alice", 1L, message.getCreatedAt());
+    }
+
+    @Test
+    void recordMessages_ShouldNotCountMessagesTheReadWatermarkAlreadyCovers() {
+        ConversationSummaryService service = new ConversationSummaryService(conversationSummaryRepository);
+        when(conversationSummaryRepository.findAllById(anyIterable())).thenReturn(List.of(
+                summary("alice_bob", "alice"), summary("alice_bob", "bob")));
+        LocalDateTime readAt = LocalDateTime.now();
+        ChatMessage before = message("m1", "bob", "alice", readAt.minusSeconds(1));
+        ChatMessage after = message("m2", "bob", "alice", readAt.plusSeconds(1));
+        // The watermark sits between the two messages, so only the later one still matches
+        when(conversationSummaryRepository.addUnread("alice_bob", "alice", 2L, before.getCreatedAt())).thenReturn(0);
+        when(conversationSummaryRepository.addUnread("alice_bob", "alice", 1L, after.getCreatedAt())).thenReturn(1);
+
+        List<ChatMessage> unread = service.recordMessages(List.of(before, after));
+
+        assertEquals(List.of(after), unread);
+        verify(conversationSummaryRepository).addUnread("alice_bob", "alice", 1L, after.getCreatedAt());
+        verify(conversationSummaryRepository, never()).addUnread("alice_bob", "alice", 1L, before.getCreatedAt());
+    }
+
+    private static ConversationSummary summary(String conversationId, String userId) {
+        return ConversationSummary.builder().conversationId(conversationId).userId(userId).build();
+    }
+
+    private static ChatMessage message(String id, String senderId, String recipientId, LocalDateTime createdAt) {
+        return ChatMessage.builder()
+                .id(id)
+                .conversationId(ChatMessage.generateConversationId(senderId, recipientId))
+                .senderId(senderId)
+                .recipientId(recipientId)
+                .content("hi")
+                .messageType(ChatMessage.MessageType.TEXT)
+                .createdAt(createdAt)
+                .build();
+    }
+}
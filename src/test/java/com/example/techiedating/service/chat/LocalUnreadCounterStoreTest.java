@@ -0,0 +1,51 @@
+package com.example.techiedating.service.chat;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalUnreadCounterStoreTest {
+
+    private final LocalUnreadCounterStore store = new LocalUnreadCounterStore(Duration.ofMinutes(10), 100);
+
+    @Test
+    void add_ShouldOnlyChangeLoadedCounters() {
+        assertNull(store.add("alice", 1));
+        assertNull(store.get("alice"));
+
+        assertTrue(store.setIfUnchanged("alice", 2, store.version("alice")));
+        assertEquals(3L, store.add("alice", 1));
+        assertEquals(3L, store.get("alice"));
+    }
+
+    @Test
+    void add_ShouldNotGoBelowZero() {
+        store.setIfUnchanged("bob", 1, store.version("bob"));
+
+        assertEquals(0L, store.add("bob", -5));
+    }
+
+    @Test
+    void setIfUnchanged_ShouldNotLoadACountThatMissedAChange() {
+        long version = store.version("carol");
+        // A message arrives while the count is taken
+        store.add("carol", 1);
+
+        assertFalse(store.setIfUnchanged("carol", 4, version));
+        assertNull(store.get("carol"));
+        assertTrue(store.setIfUnchanged("carol", 5, store.version("carol")));
+        assertEquals(5L, store.get("carol"));
+    }
+
+    @Test
+    void setIfUnchanged_ShouldKeepACounterLoadedConcurrently() {
+        long version = store.version("dave");
+        store.setIfUnchanged("dave", 3, version);
+        store.add("dave", 1);
+
+        assertFalse(store.setIfUnchanged("dave", 3, version));
+        assertEquals(4L, store.get("dave"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.techiedating.service.chat;
+
+import com.example.techiedating.dto.UnreadCountDTO;
+import com.example.techiedating.model.ChatMessage;
+import com.example.techiedating.repository.ChatMessageRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCounterServiceTest {
+
+    @Mock
+    private UnreadCounterStore unreadCounterStore;
+
+    @Mock
+    private ChatMessageRepository chatMessageRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private UnreadCounterService unreadCounterService;
+
+    @Test
+    void getUnreadCount_ShouldReadTheVersionBeforeCountingAndLoadWithIt() {
+        when(unreadCounterStore.get("alice")).thenReturn(null);
+        when(unreadCounterStore.version("alice")).thenReturn(7L);
+        when(chatMessageRepository.countByRecipientIdAndIsReadFalse("alice")).thenReturn(3L);
+
+        assertEquals(3L, unreadCounterService.getUnreadCount("alice"));
+
+        InOrder order = inOrder(unreadCounterStore, chatMessageRepository);
+        order.verify(unreadCounterStore).version("alice");
+        order.verify(chatMessageRepository).countByRecipientIdAndIsReadFalse("alice");
+        order.verify(unreadCounterStore).setIfUnchanged("alice", 3L, 7L);
+    }
+
+    @Test
+    void messagesReceived_ShouldPushTheNewCountOfLoadedCounters() {
+        when(unreadCounterStore.add("alice", 2L)).thenReturn(5L);
+
+        unreadCounterService.messagesReceived(List.of(message("alice"), message("alice")));
+
+        verify(messagingTemplate).convertAndSendToUser("alice", "/queue/unread", new UnreadCountDTO(5L));
+        verify(chatMessageRepository, never()).countByRecipientIdAndIsReadFalse(anyString());
+    }
+
+    @Test
+    void messagesReceived_ShouldLeaveCountersThatAreNotLoadedForTheNextRead() {
+        when(unreadCounterStore.add("alice", 2L)).thenReturn(null);
+
+        unreadCounterService.messagesReceived(List.of(message("alice"), message("alice")));
+
+        verify(chatMessageRepository, never()).countByRecipientIdAndIsReadFalse(anyString());
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void getUnreadCount_ShouldCountInTheDatabaseWhenTheStoreIsUnavailable() {
+        when(unreadCounterStore.get("alice")).thenThrow(new QueryTimeoutException("down"));
+        when(unreadCounterStore.version("alice")).thenThrow(new QueryTimeoutException("down"));
+        when(chatMessageRepository.countByRecipientIdAndIsReadFalse("alice")).thenReturn(2L);
+
+        assertEquals(2L, unreadCounterService.getUnreadCount("alice"));
+        verify(unreadCounterStore, never()).setIfUnchanged(anyString(), anyLong(), anyLong());
+    }
+
+    private static ChatMessage message(String recipientId) {
+        return ChatMessage.builder().senderId("bob").recipientId(recipientId).build();
+    }
+}
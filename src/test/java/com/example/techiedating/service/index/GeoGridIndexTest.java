@@ -0,0 +1,103 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.repository.UserProfileRepository;
+import com.example.techiedating.service.distance.DistanceCalculationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class GeoGridIndexTest {
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    private GeoGridIndex geoGridIndex;
+
+    @BeforeEach
+    void setUp() {
+        geoGridIndex = new GeoGridIndex(userProfileRepository, new DistanceCalculationService());
+        ReflectionTestUtils.setField(geoGridIndex, "cellDegrees", 0.5);
+
+        geoGridIndex.update("london", 51.5074, -0.1278);
+        geoGridIndex.update("reading", 51.4543, -0.9781);
+        geoGridIndex.update("paris", 48.8566, 2.3522);
+        geoGridIndex.update("new-york", 40.7128, -74.0060);
+    }
+
+    @Test
+    void findNearest_ShouldOrderByDistanceAndExcludeCaller() {
+        List<GeoCandidate> nearest = geoGridIndex.findNearest(51.5074, -0.1278, null, 2, "london");
+
+        assertEquals(List.of("reading", "paris"), nearest.stream().map(GeoCandidate::getUserId).toList());
+    }
+
+    @Test
+    void findNearest_ShouldRespectRadius() {
+        List<GeoCandidate> withinRadius = geoGridIndex.findNearest(51.5074, -0.1278, 500.0, Integer.MAX_VALUE, "london");
+
+        assertEquals(2, withinRadius.size());
+        assertTrue(withinRadius.stream().noneMatch(c -> c.getUserId().equals("new-york")));
+    }
+
+    @Test
+    void findNearest_ShouldReachDistantUsersWhenPageIsNotFull() {
+        List<GeoCandidate> nearest = geoGridIndex.findNearest(51.5074, -0.1278, null, 10, "london");
+
+        assertEquals(3, nearest.size());
+        assertEquals("new-york", nearest.get(2).getUserId());
+    }
+
+    @Test
+    void update_ShouldMoveUserBetweenCells() {
+        geoGridIndex.update("paris", 40.73, -73.99);
+
+        List<GeoCandidate> nearNewYork = geoGridIndex.findNearest(40.7128, -74.0060, 50.0, Integer.MAX_VALUE, null);
+        assertEquals(2, nearNewYork.size());
+
+        geoGridIndex.update("paris", null, null);
+        assertEquals(1, geoGridIndex.findNearest(40.7128, -74.0060, 50.0, Integer.MAX_VALUE, null).size());
+    }
+
+    @Test
+    void update_ShouldKeepEachUserInExactlyOneCellUnderConcurrentMoves() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> moves = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                boolean toNewYork = i % 2 == 0;
+                moves.add(pool.submit(() -> geoGridIndex.update("mover",
+                        toNewYork ? 40.72 : 48.85, toNewYork ? -74.0 : 2.35)));
+            }
+            for (Future<?> move : moves) {
+                move.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long nearNewYork = countMover(geoGridIndex.findNearest(40.7128, -74.0060, 50.0, Integer.MAX_VALUE, null));
+        long nearParis = countMover(geoGridIndex.findNearest(48.8566, 2.3522, 50.0, Integer.MAX_VALUE, null));
+        assertEquals(1, nearNewYork + nearParis);
+        Map<?, ?> cells = (Map<?, ?>) ReflectionTestUtils.getField(geoGridIndex, "cells");
+        assertEquals(1, cells.values().stream().filter(members -> ((Set<?>) members).contains("mover")).count());
+    }
+
+    private static long countMover(List<GeoCandidate> candidates) {
+        return candidates.stream().filter(candidate -> candidate.getUserId().equals("mover")).count();
+    }
+}
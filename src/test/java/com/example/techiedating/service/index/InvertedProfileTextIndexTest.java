@@ -0,0 +1,77 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.UserProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvertedProfileTextIndexTest {
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    private InvertedProfileTextIndex textIndex;
+
+    @BeforeEach
+    void setUp() {
+        textIndex = new InvertedProfileTextIndex(userProfileRepository);
+        textIndex.update(profile("alice", "Alice Java", "Backend engineer who loves Kotlin", "hiking"));
+        textIndex.update(profile("bob", "Bob", "Java developer and hiker", "chess"));
+        textIndex.update(profile("carol", "Carol", "Frontend React dev"));
+    }
+
+    @Test
+    void search_ShouldRankDisplayNameMatchesFirst() {
+        assertEquals(List.of("alice", "bob"), textIndex.search("java", 10));
+    }
+
+    @Test
+    void search_ShouldRequireEveryTokenAndMatchPrefixes() {
+        assertEquals(List.of("alice", "bob"), textIndex.search("java hik", 10));
+        assertEquals(List.of("bob"), textIndex.search("java chess", 10));
+        assertTrue(textIndex.search("java react", 10).isEmpty());
+    }
+
+    @Test
+    void update_ShouldReplacePreviousText() {
+        textIndex.update(profile("carol", "Carol", "Backend Go dev"));
+
+        assertTrue(textIndex.search("react", 10).isEmpty());
+        assertEquals(List.of("alice", "carol"), textIndex.search("backend", 10));
+    }
+
+    @Test
+    void rebuild_ShouldReplaceTheIndexWithTheDatabaseTextAndMarkItReady() {
+        assertFalse(textIndex.isReady());
+        when(userProfileRepository.findAllInterests()).thenReturn(List.<Object[]>of(new Object[]{"dave", "Climbing"}));
+        when(userProfileRepository.findAllSearchText()).thenReturn(List.of(
+                new Object[]{"alice", "Alice", "Backend engineer"},
+                new Object[]{"dave", "Dave", "Java developer"}));
+
+        textIndex.rebuild();
+
+        assertTrue(textIndex.isReady());
+        assertEquals(List.of("dave"), textIndex.search("java", 10));
+        assertEquals(List.of("dave"), textIndex.search("climbing", 10));
+        assertTrue(textIndex.search("chess", 10).isEmpty());
+    }
+
+    private static UserProfile profile(String id, String displayName, String bio, String... interests) {
+        return UserProfile.builder()
+                .id(id)
+                .displayName(displayName)
+                .bio(bio)
+                .interests(Set.of(interests))
+                .build();
+    }
+}
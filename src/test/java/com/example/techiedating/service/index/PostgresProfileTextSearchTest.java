@@ -0,0 +1,63 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.repository.UserProfileRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresProfileTextSearchTest {
+
+    private static final String TSVECTOR =
+            "to_tsvector('simple', coalesce(display_name, '') || ' ' || coalesce(bio, ''))";
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private PostgresProfileTextSearch textSearch;
+
+    @Test
+    void indexExpression_ShouldMatchTheRankedQuerySoTheGinIndexIsUsed() throws Exception {
+        String createIndex = (String) ReflectionTestUtils.getField(PostgresProfileTextSearch.class, "CREATE_INDEX_SQL");
+        String query = UserProfileRepository.class.getMethod("searchTextRanked", String.class, int.class)
+                .getAnnotation(Query.class).value()
+                .replace("p.display_name", "display_name")
+                .replace("p.bio", "bio");
+
+        assertTrue(createIndex.contains("USING GIN (" + TSVECTOR + ")"));
+        assertTrue(query.contains("WHERE " + TSVECTOR + " @@ plainto_tsquery('simple', :query)"));
+        assertTrue(query.contains("ORDER BY ts_rank(" + TSVECTOR + ", plainto_tsquery('simple', :query)) DESC"));
+    }
+
+    @Test
+    void createIndex_ShouldNotFailStartupWhenTheIndexCannotBeCreated() {
+        doThrow(new IllegalStateException("permission denied")).when(jdbcTemplate).execute(anyString());
+
+        assertDoesNotThrow(() -> textSearch.createIndex());
+    }
+
+    @Test
+    void search_ShouldReturnTheRankedIds() {
+        when(userProfileRepository.searchTextRanked("java developer", 50)).thenReturn(List.of("user-2", "user-1"));
+
+        assertEquals(List.of("user-2", "user-1"), textSearch.search("java developer", 50));
+        verify(userProfileRepository).searchTextRanked("java developer", 50);
+    }
+}
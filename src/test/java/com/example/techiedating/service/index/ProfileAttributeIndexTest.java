@@ -0,0 +1,95 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.model.Gender;
+import com.example.techiedating.repository.UserProfileRepository;
+import com.example.techiedating.repository.UserSkillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileAttributeIndexTest {
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @Mock
+    private UserSkillRepository userSkillRepository;
+
+    private ProfileAttributeIndex attributeIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(userProfileRepository.findAllFilterAttributes()).thenReturn(List.of(
+                new Object[]{"alice", Gender.FEMALE, 6},
+                new Object[]{"bob", Gender.MALE, 2},
+                new Object[]{"carol", Gender.FEMALE, null}
+        ));
+        when(userProfileRepository.findAllInterests()).thenReturn(List.of(
+                new Object[]{"alice", "Hiking"},
+                new Object[]{"bob", "chess"}
+        ));
+        when(userSkillRepository.findAllSkillLevels()).thenReturn(List.of(
+                new Object[]{"alice", 1, 3},
+                new Object[]{"bob", 1, 5},
+                new Object[]{"bob", 2, 4}
+        ));
+
+        attributeIndex = new ProfileAttributeIndex(userProfileRepository, userSkillRepository);
+        ReflectionTestUtils.setField(attributeIndex, "enabled", true);
+        attributeIndex.warmUp();
+    }
+
+    @Test
+    void select_ShouldIntersectFilters() {
+        assertEquals(List.of("alice", "carol"), attributeIndex.select("female", null, null, null, null).ids());
+        assertEquals(List.of("alice"), attributeIndex.select("female", 3, null, List.of(1), null).ids());
+        assertEquals(List.of("bob"), attributeIndex.select(null, null, 5, List.of(1, 2), null).ids());
+        assertEquals(List.of("alice"), attributeIndex.select(null, null, null, null, List.of(" HIKING")).ids());
+        assertTrue(attributeIndex.select("male", 3, null, null, null).isEmpty());
+    }
+
+    @Test
+    void select_ShouldReturnNullWithoutFilters() {
+        assertNull(attributeIndex.select(null, null, null, List.of(), null));
+    }
+
+    @Test
+    void skillWrites_ShouldUpdateSelections() {
+        attributeIndex.addSkill("carol", 2);
+        attributeIndex.removeSkill("bob", 2);
+
+        ProfileSelection selection = attributeIndex.select(null, null, null, List.of(2), null);
+        assertTrue(selection.contains("carol"));
+        assertFalse(selection.contains("bob"));
+        assertFalse(selection.contains("unknown"));
+    }
+
+    @Test
+    void rebuild_ShouldPickUpProfilesChangedOnOtherInstances() {
+        ProfileSelection before = attributeIndex.select("female", null, null, null, null);
+        when(userProfileRepository.findAllFilterAttributes()).thenReturn(List.of(
+                new Object[]{"alice", Gender.FEMALE, 6},
+                new Object[]{"bob", Gender.FEMALE, 2},
+                new Object[]{"dave", Gender.MALE, 4}
+        ));
+        when(userProfileRepository.findAllInterests()).thenReturn(List.of());
+        when(userSkillRepository.findAllSkillLevels()).thenReturn(List.<Object[]>of(new Object[]{"dave", 1, 2}));
+
+        attributeIndex.rebuild();
+
+        assertEquals(List.of("alice", "bob"), attributeIndex.select("female", null, null, null, null).ids());
+        assertEquals(List.of("dave"), attributeIndex.select(null, null, null, List.of(1), null).ids());
+        assertTrue(attributeIndex.select(null, null, null, null, List.of("hiking")).isEmpty());
+        // Ordinals survive the rebuild, so earlier selections still resolve to the same profiles
+        assertEquals(List.of("alice", "carol"), before.ids());
+    }
+}
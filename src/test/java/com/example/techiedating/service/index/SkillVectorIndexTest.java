@@ -0,0 +1,78 @@
+package com.example.techiedating.service.index;
+
+import com.example.techiedating.repository.UserSkillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SkillVectorIndexTest {
+
+    @Mock
+    private UserSkillRepository userSkillRepository;
+
+    private SkillVectorIndex skillVectorIndex;
+
+    @BeforeEach
+    void setUp() {
+        skillVectorIndex = new SkillVectorIndex(userSkillRepository);
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndReloadAfterEviction() {
+        when(userSkillRepository.findSkillLevelsByUserIds(anyList()))
+                .thenReturn(rows(new Object[]{"user-1", 1, 3}))
+                .thenReturn(rows(new Object[]{"user-1", 1, 5}));
+
+        assertEquals(9, skillVectorIndex.get("user-1").sumOfSquares());
+        assertEquals(9, skillVectorIndex.get("user-1").sumOfSquares());
+
+        skillVectorIndex.evict("user-1");
+
+        assertEquals(25, skillVectorIndex.get("user-1").sumOfSquares());
+        verify(userSkillRepository, times(2)).findSkillLevelsByUserIds(anyList());
+    }
+
+    @Test
+    void get_ShouldNotIndexALoadThatRacedAnEviction() {
+        when(userSkillRepository.findSkillLevelsByUserIds(anyList()))
+                .thenAnswer(invocation -> {
+                    // The skill change commits and evicts while the old rows are being read
+                    skillVectorIndex.evict("user-1");
+                    return rows(new Object[]{"user-1", 1, 3});
+                })
+                .thenReturn(rows(new Object[]{"user-1", 1, 5}));
+
+        assertEquals(9, skillVectorIndex.get("user-1").sumOfSquares());
+        assertEquals(25, skillVectorIndex.get("user-1").sumOfSquares());
+        assertEquals(25, skillVectorIndex.get("user-1").sumOfSquares());
+        verify(userSkillRepository, times(2)).findSkillLevelsByUserIds(anyList());
+    }
+
+    @Test
+    void getAll_ShouldMapUsersWithoutSkillsToEmptyVectors() {
+        when(userSkillRepository.findSkillLevelsByUserIds(anyList()))
+                .thenReturn(rows(new Object[]{"user-1", 2, 4}));
+
+        Map<String, SkillVector> vectors = skillVectorIndex.getAll(List.of("user-1", "user-2"));
+
+        assertEquals(16, vectors.get("user-1").sumOfSquares());
+        assertSame(SkillVector.EMPTY, vectors.get("user-2"));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
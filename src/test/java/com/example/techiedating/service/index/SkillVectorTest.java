@@ -0,0 +1,31 @@
+package com.example.techiedating.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkillVectorTest {
+
+    @Test
+    void of_ShouldSortSkillIds() {
+        SkillVector vector = SkillVector.of(Map.of(7, 3, 2, 5, 4, 1));
+
+        assertEquals(3, vector.size());
+        assertEquals(2, vector.skillIdAt(0));
+        assertEquals(4, vector.skillIdAt(1));
+        assertEquals(7, vector.skillIdAt(2));
+        assertEquals(35, vector.sumOfSquares());
+    }
+
+    @Test
+    void dot_ShouldOnlyCountSharedSkills() {
+        SkillVector a = SkillVector.of(Map.of(1, 2, 3, 4, 5, 1));
+        SkillVector b = SkillVector.of(Map.of(3, 2, 5, 5, 9, 4));
+
+        assertEquals(4 * 2 + 1 * 5, a.dot(b));
+        assertEquals(a.dot(b), b.dot(a));
+        assertEquals(0, a.dot(SkillVector.EMPTY));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.techiedating.service.ranking;
+
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.UserProfileRepository;
+import com.example.techiedating.service.index.GeoCandidate;
+import com.example.techiedating.service.index.GeoGridIndex;
+import com.example.techiedating.service.index.SkillVector;
+import com.example.techiedating.service.index.SkillVectorIndex;
+import com.example.techiedating.service.scoring.MatchScoringService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MatchRankingEngineTest {
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @Mock
+    private SkillVectorIndex skillVectorIndex;
+
+    @Mock
+    private GeoGridIndex geoGridIndex;
+
+    @Mock
+    private MatchScoringService matchScoringService;
+
+    @Mock
+    private ParallelScoringExecutor parallelScoringExecutor;
+
+    @InjectMocks
+    private MatchRankingEngine matchRankingEngine;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(matchRankingEngine, "topK", 10);
+        ReflectionTestUtils.setField(matchRankingEngine, "chunkSize", 2);
+        ReflectionTestUtils.setField(matchRankingEngine, "maxCandidates", 100);
+    }
+
+    @Test
+    void rank_ShouldAppendCandidatesWithoutALocationAfterTheNearest() {
+        UserProfile current = UserProfile.builder().id("user-1").latitude(51.5).longitude(-0.1).build();
+        when(geoGridIndex.findNearest(51.5, -0.1, null, 100, "user-1"))
+                .thenReturn(List.of(new GeoCandidate("user-2", 1.0)));
+        when(userProfileRepository.findScoringAttributesByIds(List.of("user-2")))
+                .thenReturn(List.<Object[]>of(new Object[]{"user-2", 51.4, -0.2, 3}));
+        when(userProfileRepository.findUnlocatedScoringAttributesAfter("user-1", "", PageRequest.of(0, 2)))
+                .thenReturn(List.<Object[]>of(new Object[]{"user-3", null, null, 5}));
+        when(matchScoringService.calculateMatchScore(eq(current), argThat(c -> c != null && "user-2".equals(c.getId())),
+                any(), any())).thenReturn(0.4);
+        when(matchScoringService.calculateMatchScore(eq(current), argThat(c -> c != null && "user-3".equals(c.getId())),
+                any(), any())).thenReturn(0.6);
+
+        MatchRanking ranking = matchRankingEngine.rank(current, SkillVector.EMPTY, 0);
+
+        assertEquals(List.of("user-3", "user-2"), ranking.getMatches().stream().map(RankedMatch::getUserId).toList());
+    }
+
+    @Test
+    void rank_ShouldScanEveryProfileByIdWhenTheUserHasNoLocation() {
+        UserProfile current = UserProfile.builder().id("user-1").build();
+        when(userProfileRepository.findScoringAttributesAfter("user-1", "", PageRequest.of(0, 2)))
+                .thenReturn(List.<Object[]>of(new Object[]{"user-2", null, null, 1}));
+
+        MatchRanking ranking = matchRankingEngine.rank(current, SkillVector.EMPTY, 0);
+
+        assertEquals(1, ranking.getMatches().size());
+        verify(geoGridIndex, never()).findNearest(anyDouble(), anyDouble(), any(), anyInt(), any());
+        verify(userProfileRepository, never()).findUnlocatedScoringAttributesAfter(any(), any(), any());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.techiedating.service.ranking;
+
+import com.example.techiedating.model.MatchRecommendation;
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.repository.MatchRecommendationRepository;
+import com.example.techiedating.repository.UserProfileRepository;
+import com.example.techiedating.service.cache.MatchmakingCacheService;
+import com.example.techiedating.service.index.SkillVector;
+import com.example.techiedating.service.index.SkillVectorIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MatchRecommendationServiceTest {
+
+    @Mock
+    private MatchRankingEngine matchRankingEngine;
+
+    @Mock
+    private MatchRecommendationRepository matchRecommendationRepository;
+
+    @Mock
+    private UserProfileRepository userProfileRepository;
+
+    @Mock
+    private SkillVectorIndex skillVectorIndex;
+
+    @Mock
+    private MatchmakingCacheService cacheService;
+
+    private MatchRecommendationService recommendationService;
+
+    @BeforeEach
+    void setUp() {
+        recommendationService = new MatchRecommendationService(matchRankingEngine, matchRecommendationRepository,
+                userProfileRepository, skillVectorIndex, cacheService);
+        ReflectionTestUtils.setField(recommendationService, "enabled", true);
+        ReflectionTestUtils.setField(recommendationService, "batchSize", 2);
+        ReflectionTestUtils.setField(recommendationService, "dependentRefreshLimit", 2);
+    }
+
+    @Test
+    void recompute_ShouldStoreTheRankingInOrder() {
+        UserProfile profile = UserProfile.builder().id("user-1").build();
+        when(userProfileRepository.findById("user-1")).thenReturn(Optional.of(profile));
+        when(skillVectorIndex.get("user-1")).thenReturn(SkillVector.EMPTY);
+        when(matchRankingEngine.rank(profile, SkillVector.EMPTY, 0)).thenReturn(new MatchRanking(
+                List.of(new RankedMatch("user-3", 0.9), new RankedMatch("user-2", 0.5)), 200));
+
+        recommendationService.recompute("user-1");
+
+        ArgumentCaptor<MatchRecommendation> saved = ArgumentCaptor.forClass(MatchRecommendation.class);
+        verify(matchRecommendationRepository).save(saved.capture());
+        assertEquals("user-1", saved.getValue().getUserId());
+        assertEquals(200, saved.getValue().getRankingLimit());
+        assertEquals(List.of(new MatchRecommendation.Candidate("user-3", 0.9),
+                new MatchRecommendation.Candidate("user-2", 0.5)), saved.getValue().getCandidates());
+        verify(cacheService).evictUser("user-1");
+    }
+
+    @Test
+    void findRanking_ShouldRestoreTheStoredOrder() {
+        when(matchRecommendationRepository.findWithCandidates("user-1")).thenReturn(Optional.of(
+                MatchRecommendation.builder()
+                        .userId("user-1")
+                        .candidates(List.of(new MatchRecommendation.Candidate("user-3", 0.9),
+                                new MatchRecommendation.Candidate("user-2", 0.5)))
+                        .rankingLimit(200)
+                        .computedAt(Instant.now())
+                        .build()));
+
+        MatchRanking ranking = recommendationService.findRanking("user-1").orElseThrow();
+
+        assertEquals(List.of(new RankedMatch("user-3", 0.9), new RankedMatch("user-2", 0.5)), ranking.getMatches());
+        assertEquals(200, ranking.getLimit());
+    }
+
+    @Test
+    void refreshPending_ShouldRecomputeChangedUsersThenABoundedNumberOfRankingsIncludingThem() {
+        when(userProfileRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(matchRecommendationRepository.findUserIdsRanking("user-1"))
+                .thenReturn(List.of("user-2", "user-3", "user-4"));
+
+        recommendationService.markStale("user-1");
+        recommendationService.refreshPending();
+
+        verify(cacheService).evictUser("user-1");
+        verify(matchRecommendationRepository).deleteById("user-1");
+        verify(matchRecommendationRepository, times(3)).deleteById(anyString());
+
+        recommendationService.refreshPending();
+
+        verify(matchRecommendationRepository, times(4)).deleteById(anyString());
+        verify(matchRecommendationRepository).deleteById("user-2");
+        verify(matchRecommendationRepository).deleteById("user-3");
+        verify(matchRecommendationRepository).deleteById("user-4");
+    }
+
+    @Test
+    void recomputeAll_ShouldPageThroughActiveUsers() {
+        when(userProfileRepository.findActiveProfileIdsAfter("", PageRequest.of(0, 2))).thenReturn(List.of("a", "b"));
+        when(userProfileRepository.findActiveProfileIdsAfter("b", PageRequest.of(0, 2))).thenReturn(List.of("c"));
+        when(userProfileRepository.findActiveProfileIdsAfter("c", PageRequest.of(0, 2))).thenReturn(List.of());
+        when(userProfileRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        recommendationService.recomputeAll();
+
+        verify(matchRecommendationRepository, times(3)).deleteById(anyString());
+    }
+
+    @Test
+    void disabled_ShouldNeitherServeNorQueueRecommendations() {
+        ReflectionTestUtils.setField(recommendationService, "enabled", false);
+
+        recommendationService.markStale("user-1");
+        recommendationService.refreshPending();
+
+        assertTrue(recommendationService.findRanking("user-1").isEmpty());
+        verify(cacheService).evictUser("user-1");
+        verifyNoInteractions(matchRecommendationRepository);
+        verify(matchRankingEngine, never()).rank(any(), any(), anyInt());
+    }
+}
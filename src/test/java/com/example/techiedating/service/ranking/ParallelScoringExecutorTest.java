@@ -0,0 +1,99 @@
+package com.example.techiedating.service.ranking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelScoringExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ParallelScoringExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void disabled_ShouldScoreOnTheCallingThread() {
+        executor = executor(false, 2, 8);
+
+        assertFalse(executor.shouldParallelize(10_000));
+        assertEquals(1, executor.getParallelism());
+    }
+
+    @Test
+    void invokeAll_ShouldRunOnThePoolAndKeepTaskOrder() {
+        executor = executor(true, 2, 8);
+        List<Callable<String>> tasks = List.of(
+                () -> "a:" + Thread.currentThread().getName(),
+                () -> "b:" + Thread.currentThread().getName(),
+                () -> "c:" + Thread.currentThread().getName());
+
+        List<String> results = executor.invokeAll(tasks);
+
+        assertTrue(executor.shouldParallelize(4));
+        assertFalse(executor.shouldParallelize(3));
+        assertEquals(2, executor.getParallelism());
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).startsWith("a:match-scoring-"));
+        assertTrue(results.get(1).startsWith("b:match-scoring-"));
+        assertTrue(results.get(2).startsWith("c:match-scoring-"));
+        assertNotNull(meterRegistry.find("matchmaking.scoring.queue.depth").gauge());
+        assertNotNull(meterRegistry.find("matchmaking.scoring.active").gauge());
+    }
+
+    @Test
+    void invokeAll_ShouldRunRejectedWorkOnTheCallerAndCountIt() {
+        executor = executor(true, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        String caller = Thread.currentThread().getName();
+        List<Callable<String>> tasks = List.of(
+                // Occupies the only thread until the rejected task runs
+                () -> release.await(5, TimeUnit.SECONDS) ? "busy" : "timed out",
+                // Fills the queue
+                () -> "queued",
+                () -> {
+                    release.countDown();
+                    return Thread.currentThread().getName();
+                });
+
+        List<String> results = executor.invokeAll(tasks);
+
+        assertEquals(List.of("busy", "queued", caller), results);
+        assertEquals(1.0, meterRegistry.counter("matchmaking.scoring.rejected").count());
+    }
+
+    @Test
+    void invokeAll_ShouldReportTheFailureOfAnyTask() {
+        executor = executor(true, 2, 8);
+        List<Callable<String>> tasks = List.of(
+                () -> "ok",
+                () -> {
+                    throw new IllegalArgumentException("bad candidate");
+                });
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> executor.invokeAll(tasks));
+
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+    }
+
+    private ParallelScoringExecutor executor(boolean enabled, int threads, int queueCapacity) {
+        ParallelScoringExecutor scoringExecutor = new ParallelScoringExecutor(meterRegistry);
+        ReflectionTestUtils.setField(scoringExecutor, "enabled", enabled);
+        ReflectionTestUtils.setField(scoringExecutor, "threads", threads);
+        ReflectionTestUtils.setField(scoringExecutor, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(scoringExecutor, "minCandidates", 4);
+        scoringExecutor.init();
+        return scoringExecutor;
+    }
+}
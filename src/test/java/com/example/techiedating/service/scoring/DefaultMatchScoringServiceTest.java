@@ -0,0 +1,54 @@
+package com.example.techiedating.service.scoring;
+
+import com.example.techiedating.model.UserProfile;
+import com.example.techiedating.service.distance.DistanceCalculationService;
+import com.example.techiedating.service.index.SkillVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultMatchScoringServiceTest {
+
+    private final DefaultMatchScoringService scoringService =
+            new DefaultMatchScoringService(new DistanceCalculationService());
+
+    @Test
+    void calculateSkillScore_ShouldNormalizeSharedLevelsByCurrentUsersSkills() {
+        SkillVector current = SkillVector.of(Map.of(1, 3, 2, 4));
+        SkillVector other = SkillVector.of(Map.of(2, 2, 9, 5));
+
+        assertEquals(8.0 / 25.0, scoringService.calculateSkillScore(current, other), 1e-9);
+        assertEquals(0.0, scoringService.calculateSkillScore(current, SkillVector.EMPTY));
+        assertEquals(0.0, scoringService.calculateSkillScore(SkillVector.EMPTY, other));
+    }
+
+    @Test
+    void calculateMatchScore_ShouldWeighSkillsDistanceAndExperience() {
+        UserProfile current = profile(52.0, 13.0, 5);
+        UserProfile other = profile(52.0, 13.0, 5);
+        SkillVector skills = SkillVector.of(Map.of(1, 3));
+
+        // Same skills, same place and same experience is a perfect match
+        assertEquals(1.0, scoringService.calculateMatchScore(current, other, skills, skills), 1e-9);
+        // No shared skills leaves the distance and experience weights
+        assertEquals(0.5, scoringService.calculateMatchScore(current, other, skills, SkillVector.EMPTY), 1e-9);
+    }
+
+    @Test
+    void calculateExperienceScore_ShouldDecreaseWithDifference() {
+        assertEquals(1.0, scoringService.calculateExperienceScore(4, 4));
+        assertEquals(0.5, scoringService.calculateExperienceScore(0, 10));
+        assertEquals(0.0, scoringService.calculateExperienceScore(0, 30));
+        assertEquals(0.5, scoringService.calculateExperienceScore(null, 3));
+    }
+
+    private static UserProfile profile(double latitude, double longitude, int experienceYrs) {
+        return UserProfile.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .experienceYrs(experienceYrs)
+                .build();
+    }
+}